@@ -0,0 +1,157 @@
+package advent;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.regex.Pattern;
+
+/**
+ * Minimal benchmark harness in the spirit of JMH: every benchmark is warmed up, then measured over
+ * several fixed-length iterations, and its result is consumed so the JIT cannot discard the work.
+ * Solver setup (reading and parsing files) happens outside of the measured body.
+ *
+ * <p>Arguments: {@code [--warmup N] [--iterations N] [--time MILLIS] [--scale N [--seed N]]
+ * [FILTER]}, where FILTER is a regular expression matched against "DayNN.method". With {@code
+ * --scale}, days that have an {@link InputGenerator} are also benchmarked against a generated input
+ * that many times the size of the real one.
+ */
+public class Benchmark {
+
+  @FunctionalInterface
+  public interface Setup<T> {
+    T create() throws IOException;
+  }
+
+  @FunctionalInterface
+  public interface BenchmarkBody<T> {
+    Object run(T input) throws Exception;
+  }
+
+  private static volatile Object blackhole;
+
+  private int warmupIterations = 3;
+  private int measurementIterations = 5;
+  private long iterationNanos = 500_000_000L;
+  private Pattern filter = Pattern.compile(".*");
+  private int scale = 0;
+  private long seed = InputGenerator.DEFAULT_SEED;
+
+  public Benchmark(String[] args) {
+    for (int i = 0; i < args.length; i++) {
+      switch (args[i]) {
+        case "--warmup":
+          warmupIterations = Integer.parseInt(args[++i]);
+          break;
+        case "--iterations":
+          measurementIterations = Integer.parseInt(args[++i]);
+          break;
+        case "--time":
+          iterationNanos = Long.parseLong(args[++i]) * 1_000_000L;
+          break;
+        case "--scale":
+          scale = Integer.parseInt(args[++i]);
+          break;
+        case "--seed":
+          seed = Long.parseLong(args[++i]);
+          break;
+        default:
+          filter = Pattern.compile(args[i]);
+      }
+    }
+  }
+
+  public boolean isSelected(String name) {
+    return filter.matcher(name).find();
+  }
+
+  /**
+   * Returns {@code inputs}, followed by a generated input for {@code day} if a scale was requested
+   * (generating it on first use).
+   */
+  public String[] getInputs(String day, String... inputs) throws IOException {
+    if (scale <= 0 || !InputGenerator.hasGenerator(day)) {
+      return inputs;
+    }
+
+    String[] withGenerated = Arrays.copyOf(inputs, inputs.length + 1);
+    withGenerated[inputs.length] =
+        InputGenerator.getOrGenerate(InputGenerator.DEFAULT_DIRECTORY, day, scale, seed);
+    return withGenerated;
+  }
+
+  /** Measures {@code body}, which must be side-effect free (or repeatable) between invocations. */
+  public void run(String name, Object param, Callable<?> body) throws Exception {
+    if (!isSelected(name)) {
+      return;
+    }
+
+    for (int i = 0; i < warmupIterations; i++) {
+      measureIteration(body);
+    }
+
+    double[] nanosPerOp = new double[measurementIterations];
+    for (int i = 0; i < measurementIterations; i++) {
+      nanosPerOp[i] = measureIteration(body);
+    }
+
+    report(name, param, nanosPerOp);
+  }
+
+  /**
+   * Measures a body that consumes its input (e.g. by mutating it), so a fresh input is created
+   * before every invocation. Only the body is timed.
+   */
+  public <T> void runWithFreshInput(
+      String name, Object param, Setup<T> setup, BenchmarkBody<T> body) throws Exception {
+    if (!isSelected(name)) {
+      return;
+    }
+
+    for (int i = 0; i < warmupIterations; i++) {
+      measureIteration(setup, body);
+    }
+
+    double[] nanosPerOp = new double[measurementIterations];
+    for (int i = 0; i < measurementIterations; i++) {
+      nanosPerOp[i] = measureIteration(setup, body);
+    }
+
+    report(name, param, nanosPerOp);
+  }
+
+  private double measureIteration(Callable<?> body) throws Exception {
+    long operations = 0;
+    long start = System.nanoTime();
+    long elapsed;
+    do {
+      blackhole = body.call();
+      operations++;
+      elapsed = System.nanoTime() - start;
+    } while (elapsed < iterationNanos);
+
+    return elapsed / (double) operations;
+  }
+
+  private <T> double measureIteration(Setup<T> setup, BenchmarkBody<T> body) throws Exception {
+    long operations = 0;
+    long measured = 0;
+    long start = System.nanoTime();
+    do {
+      T input = setup.create();
+      long bodyStart = System.nanoTime();
+      blackhole = body.run(input);
+      measured += System.nanoTime() - bodyStart;
+      operations++;
+    } while (System.nanoTime() - start < iterationNanos);
+
+    return measured / (double) operations;
+  }
+
+  private static void report(String name, Object param, double[] nanosPerOp) {
+    Arrays.sort(nanosPerOp);
+    double mean = Arrays.stream(nanosPerOp).average().orElse(Double.NaN);
+    System.out.printf(
+        "%-45s %-28s %16.1f ns/op  (min %.1f, max %.1f)%n",
+        name, param, mean, nanosPerOp[0], nanosPerOp[nanosPerOp.length - 1]);
+  }
+}
@@ -0,0 +1,31 @@
+package advent;
+
+/**
+ * Runs the benchmarks for every day in a single JVM. Accepts the same arguments as {@link
+ * Benchmark}, e.g. {@code Benchmarks --iterations 3 "Day(05|09)\."}.
+ */
+public class Benchmarks {
+  public static void main(String[] args) throws Exception {
+    Benchmark benchmark = new Benchmark(args);
+
+    Day01Benchmark.run(benchmark);
+    Day02Benchmark.run(benchmark);
+    Day03Benchmark.run(benchmark);
+    Day04Benchmark.run(benchmark);
+    Day05Benchmark.run(benchmark);
+    Day06Benchmark.run(benchmark);
+    Day07Benchmark.run(benchmark);
+    Day08Benchmark.run(benchmark);
+    Day09Benchmark.run(benchmark);
+    Day10Benchmark.run(benchmark);
+    Day11Benchmark.run(benchmark);
+    Day12Benchmark.run(benchmark);
+    Day13Benchmark.run(benchmark);
+    Day14Benchmark.run(benchmark);
+    Day16Benchmark.run(benchmark);
+    Day17Benchmark.run(benchmark);
+    Day18Benchmark.run(benchmark);
+    Day19Benchmark.run(benchmark);
+    Day21Benchmark.run(benchmark);
+  }
+}
@@ -0,0 +1,24 @@
+package advent;
+
+/** Benchmarks for the hot paths of {@link Day01}. */
+public class Day01Benchmark {
+  private static final String[] INPUTS = {"input/01.txt"};
+
+  public static void main(String[] args) throws Exception {
+    run(new Benchmark(args));
+  }
+
+  static void run(Benchmark benchmark) throws Exception {
+    for (String input : benchmark.getInputs("01", INPUTS)) {
+      int[] frequencyChanges = ParseUtility.extractInts(LineSource.map(input));
+      benchmark.run(
+          "Day01.findFirstRepeatedFrequency",
+          input,
+          () -> Day01.findFirstRepeatedFrequency(frequencyChanges));
+      benchmark.run(
+          "Day01.findFirstRepeatedFrequencyAnalytically",
+          input,
+          () -> Day01.findFirstRepeatedFrequencyAnalytically(frequencyChanges));
+    }
+  }
+}
@@ -0,0 +1,18 @@
+package advent;
+
+/** Benchmarks for the hot paths of {@link Day02}. */
+public class Day02Benchmark {
+  private static final String[] INPUTS = {"input/02.txt"};
+
+  public static void main(String[] args) throws Exception {
+    run(new Benchmark(args));
+  }
+
+  static void run(Benchmark benchmark) throws Exception {
+    for (String input : benchmark.getInputs("02", INPUTS)) {
+      String[] boxIds = FileUtility.fileToLines(input);
+      benchmark.run("Day02.checksum", input, () -> Day02.checksum(boxIds));
+      benchmark.run("Day02.findSingleDifference", input, () -> Day02.findSingleDifference(boxIds));
+    }
+  }
+}
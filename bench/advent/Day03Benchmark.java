@@ -0,0 +1,78 @@
+package advent;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/** Benchmarks for the hot paths of {@link Day03}. */
+public class Day03Benchmark {
+  /* 03_1 is the example with CRLF line endings and trailing blank lines */
+  private static final String[] INPUTS = {"test/03_0.txt", "test/03_1.txt", "input/03.txt"};
+
+  public static void main(String[] args) throws Exception {
+    run(new Benchmark(args));
+  }
+
+  static void run(Benchmark benchmark) throws Exception {
+    for (String input : INPUTS) {
+      checkLines(input);
+    }
+
+    for (String input : benchmark.getInputs("03", INPUTS)) {
+      int[] fabricDimensions = new int[2];
+      List<Day03.Claim> claims = Day03.getClaims(LineSource.map(input), fabricDimensions);
+      int fabricWidth = fabricDimensions[0];
+      int fabricHeight = fabricDimensions[1];
+
+      benchmark.run(
+          "Day03.countOverlaps",
+          input,
+          () -> Day03.countOverlaps(claims, fabricWidth, fabricHeight));
+      benchmark.run(
+          "Day03.countOverlapsWithDifferenceArray",
+          input,
+          () -> Day03.countOverlapsWithDifferenceArray(claims, fabricWidth, fabricHeight));
+      benchmark.run("Day03.countOverlapsBySweep", input, () -> Day03.countOverlapsBySweep(claims));
+      benchmark.run(
+          "Day03.findNonOverlappingIds",
+          input,
+          () -> Day03.findNonOverlappingIds(claims));
+      benchmark.run("ClaimIndex.new", input, () -> new ClaimIndex(claims));
+
+      // Throughput of concurrent ingestion, doubling the producers up to at least 4
+      int maxProducers = Math.max(4, Runtime.getRuntime().availableProcessors());
+      for (int producers = 1; producers <= maxProducers; producers *= 2) {
+        int producerCount = producers;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        try {
+          benchmark.run(
+              "Day03.ingestConcurrently",
+              input + " x" + producers,
+              () ->
+                  Day03.ingestConcurrently(
+                          claims, fabricWidth, fabricHeight, executor, producerCount)
+                      .snapshot());
+        } finally {
+          executor.shutdown();
+        }
+      }
+    }
+  }
+
+  /**
+   * Checks that LineSource splits {@code input} into the same lines as {@code split("\n")} does,
+   * with regions both as large as possible and just large enough for the longest line.
+   */
+  private static void checkLines(String input) throws Exception {
+    String[] expected = FileUtility.fileToString(input).split("\n");
+    long longestLine = Arrays.stream(expected).mapToInt(String::length).max().orElse(0) + 2;
+    for (long regionSize : new long[] {Integer.MAX_VALUE, longestLine}) {
+      String[] lines = LineSource.map(input, regionSize).toStringArray();
+      if (!Arrays.equals(lines, expected)) {
+        throw new IllegalStateException(
+            "LineSource splits " + input + " differently, with regions of " + regionSize);
+      }
+    }
+  }
+}
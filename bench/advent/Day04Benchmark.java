@@ -0,0 +1,68 @@
+package advent;
+
+import java.util.Collection;
+
+/** Benchmarks for the hot paths of {@link Day04}. */
+public class Day04Benchmark {
+  private static final String[] INPUTS = {"test/04_0.txt", "input/04.txt"};
+
+  public static void main(String[] args) throws Exception {
+    run(new Benchmark(args));
+  }
+
+  static void run(Benchmark benchmark) throws Exception {
+    for (String input : benchmark.getInputs("04", INPUTS)) {
+      LineSource log = LineSource.map(input);
+      benchmark.run("Day04.parseEvents", input, () -> Day04.parseEvents(log));
+
+      long[] events = Day04.parseEvents(log);
+      benchmark.runWithFreshInput(
+          "Day04.sortEvents",
+          input,
+          events::clone,
+          unsortedEvents -> {
+            Day04.sortEvents(unsortedEvents);
+            return unsortedEvents;
+          });
+
+      long[] sortedEvents = events.clone();
+      Day04.sortEvents(sortedEvents);
+      checkMonitorInOrder(input, sortedEvents);
+      benchmark.run(
+          "Day04.initializeGuards", input, () -> Day04.initializeGuards(sortedEvents));
+
+      // The whole log, in file order, through the online monitor
+      benchmark.run(
+          "GuardMonitor.accept",
+          input,
+          () -> {
+            GuardMonitor monitor = new GuardMonitor(Integer.MAX_VALUE);
+            for (long event : events) {
+              monitor.accept(event);
+            }
+            monitor.flush();
+            return monitor.getSleepiestGuard();
+          });
+    }
+  }
+
+  /**
+   * Feeds the sorted log to a monitor that closes each shift as soon as the next begins, and
+   * checks that it agrees with the batch solver (on the leading counts, which ties can't change).
+   */
+  private static void checkMonitorInOrder(String input, long[] sortedEvents) {
+    GuardMonitor monitor = new GuardMonitor(0);
+    for (long event : sortedEvents) {
+      monitor.accept(event);
+    }
+    monitor.flush();
+
+    Collection<Day04.Guard> guards = Day04.initializeGuards(sortedEvents);
+    int minutesAsleep = guards.stream().mapToInt(Day04.Guard::getMinutesAsleep).max().getAsInt();
+    int maxFrequency = guards.stream().mapToInt(Day04.Guard::getMaxFrequency).max().getAsInt();
+    if (monitor.getSleepiestGuard().getMinutesAsleep() != minutesAsleep
+        || monitor.getMostFrequentlyAsleepGuard().getMaxFrequency() != maxFrequency) {
+      throw new IllegalStateException("GuardMonitor disagrees with Day04 on " + input);
+    }
+  }
+}
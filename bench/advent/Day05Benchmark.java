@@ -0,0 +1,27 @@
+package advent;
+
+/** Benchmarks for the hot paths of {@link Day05}. */
+public class Day05Benchmark {
+  private static final String[] INPUTS = {"test/05_0.txt", "input/05.txt"};
+
+  public static void main(String[] args) throws Exception {
+    run(new Benchmark(args));
+  }
+
+  static void run(Benchmark benchmark) throws Exception {
+    Day05 solver = new Day05();
+    for (String input : benchmark.getInputs("05", INPUTS)) {
+      byte[] polymer = solver.parse(input);
+      benchmark.run("Day05.reduce", input, () -> Day05.reduce(polymer));
+      LineSource mappedPolymer = LineSource.map(input);
+      benchmark.run(
+          "Day05.reduceInParallel", input, () -> Day05.reduceInParallel(mappedPolymer));
+
+      byte[] reducedPolymer = Day05.reduce(polymer);
+      benchmark.run(
+          "Day05.getShortestLengthWithOmittedType",
+          input,
+          () -> Day05.getShortestLengthWithOmittedType(reducedPolymer));
+    }
+  }
+}
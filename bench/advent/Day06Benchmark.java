@@ -0,0 +1,93 @@
+package advent;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/** Benchmarks for the hot paths of {@link Day06}. */
+public class Day06Benchmark {
+  private static final String[] INPUTS = {"test/06_0.txt", "input/06.txt"};
+
+  /* Cells per batch of ad hoc queries */
+  private static final int QUERIES = 10000;
+
+  public static void main(String[] args) throws Exception {
+    run(new Benchmark(args));
+  }
+
+  static void run(Benchmark benchmark) throws Exception {
+    for (String input : benchmark.getInputs("06", INPUTS)) {
+      List<Day06.Point> points =
+          LineSource.map(input).lines().map(Day06.Point::new).collect(Collectors.toList());
+      // The example uses a much smaller cutoff than the puzzle, whose 10000 is 200 per point
+      long cutoff = input.startsWith("test/") ? 32 : 200L * points.size();
+
+      if (Arrays.asList(INPUTS).contains(input)) {
+        Day06.checkUnboundedRegions(points);
+      }
+
+      benchmark.run("Day06.getLargestFiniteArea", input, () -> Day06.getLargestFiniteArea(points));
+      benchmark.run(
+          "Day06.findUnboundedRegions", input, () -> Day06.findUnboundedRegions(points));
+      benchmark.run(
+          "Day06.isCloseToInfinitelyManySpaces",
+          input,
+          () ->
+              points.stream().filter(p -> Day06.isCloseToInfinitelyManySpaces(points, p)).count());
+      benchmark.run(
+          "VoronoiGrid.labelByBreadthFirstSearch", input, () -> new VoronoiGrid(points, false));
+      benchmark.run(
+          "VoronoiGrid.labelByDistanceTransform", input, () -> new VoronoiGrid(points, true));
+      benchmark.run(
+          "Day06.getAreaUnderTotalDistanceCutoff",
+          input,
+          () -> Day06.getAreaUnderTotalDistanceCutoff(points, cutoff));
+
+      // Ad hoc queries at random cells around the points, answered by the index and by scanning
+      int[] queryXs = new int[QUERIES];
+      int[] queryYs = new int[QUERIES];
+      Random random = new Random(2018);
+      for (int i = 0; i < QUERIES; i++) {
+        Day06.Point point = points.get(random.nextInt(points.size()));
+        queryXs[i] = point.x + random.nextInt(101) - 50;
+        queryYs[i] = point.y + random.nextInt(101) - 50;
+      }
+      PointIndex index = new PointIndex(points);
+      int[] owners = index.getOwners(queryXs, queryYs);
+      if (!Arrays.equals(owners, getOwnersByScan(points, queryXs, queryYs))) {
+        throw new IllegalStateException("PointIndex disagrees with scanning for " + input);
+      }
+
+      benchmark.run("PointIndex.new", input, () -> new PointIndex(points));
+      benchmark.run("PointIndex.getOwners", input, () -> index.getOwners(queryXs, queryYs));
+      benchmark.run(
+          "PointIndex.getTotalDistances", input, () -> index.getTotalDistances(queryXs, queryYs));
+      benchmark.run(
+          "Day06Benchmark.getOwnersByScan",
+          input,
+          () -> getOwnersByScan(points, queryXs, queryYs));
+    }
+  }
+
+  /** The owners of cells as found by comparing the distances to every point, for reference. */
+  private static int[] getOwnersByScan(List<Day06.Point> points, int[] xs, int[] ys) {
+    int[] owners = new int[xs.length];
+    for (int i = 0; i < xs.length; i++) {
+      long best = Long.MAX_VALUE;
+      int owner = PointIndex.TIE;
+      for (int j = 0; j < points.size(); j++) {
+        long distance =
+            Math.abs((long) xs[i] - points.get(j).x) + Math.abs((long) ys[i] - points.get(j).y);
+        if (distance < best) {
+          best = distance;
+          owner = j;
+        } else if (distance == best) {
+          owner = PointIndex.TIE;
+        }
+      }
+      owners[i] = owner;
+    }
+    return owners;
+  }
+}
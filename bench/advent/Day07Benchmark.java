@@ -0,0 +1,26 @@
+package advent;
+
+/** Benchmarks for the hot paths of {@link Day07}. */
+public class Day07Benchmark {
+  private static final String[] INPUTS = {"test/07_0.txt", "input/07.txt"};
+
+  public static void main(String[] args) throws Exception {
+    run(new Benchmark(args));
+  }
+
+  static void run(Benchmark benchmark) throws Exception {
+    for (String input : benchmark.getInputs("07", INPUTS)) {
+      Day07.Instructions instructions = Day07.initializeSteps(LineSource.map(input));
+      benchmark.run(
+          "Day07.getStepExecutionOrder", input, () -> Day07.getStepExecutionOrder(instructions));
+      benchmark.run(
+          "Day07.getTotalCompletionTime",
+          input,
+          () -> Day07.getTotalCompletionTime(instructions, 6, 60, null));
+      benchmark.run(
+          "Day07.getTotalCompletionTime(1000 workers)",
+          input,
+          () -> Day07.getTotalCompletionTime(instructions, 1000, 60, null));
+    }
+  }
+}
@@ -0,0 +1,24 @@
+package advent;
+
+/** Benchmarks for the hot paths of {@link Day08}. */
+public class Day08Benchmark {
+  private static final String[] INPUTS = {"input/08.txt"};
+
+  public static void main(String[] args) throws Exception {
+    run(new Benchmark(args));
+  }
+
+  static void run(Benchmark benchmark) throws Exception {
+    for (String input : INPUTS) {
+      LineSource source = LineSource.map(input);
+      benchmark.run("Day08.extractInts", input, () -> ParseUtility.extractInts(source));
+
+      int[] specification = ParseUtility.extractInts(source);
+      benchmark.run("Day08.createNode", input, () -> Day08.createNode(specification, 0));
+
+      Day08.Node root = Day08.createNode(specification, 0).node;
+      benchmark.run(
+          "Day08.getModifiedMetadataSum", input, () -> Day08.getModifiedMetadataSum(root));
+    }
+  }
+}
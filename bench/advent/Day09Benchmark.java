@@ -0,0 +1,35 @@
+package advent;
+
+/** Benchmarks for the hot paths of {@link Day09}. */
+public class Day09Benchmark {
+  private static final String[] INPUTS = {
+    "test/09_0.txt",
+    "test/09_1.txt",
+    "test/09_2.txt",
+    "test/09_3.txt",
+    "test/09_4.txt",
+    "test/09_5.txt",
+    "input/09.txt"
+  };
+
+  /* Part two multiplies the highest marble by 100 */
+  private static final int[] SCALES = {1, 10, 100};
+
+  public static void main(String[] args) throws Exception {
+    run(new Benchmark(args));
+  }
+
+  static void run(Benchmark benchmark) throws Exception {
+    for (String input : INPUTS) {
+      int[] params = ParseUtility.extractInts(FileUtility.fileToString(input));
+      int numPlayers = params[0];
+      for (int scale : SCALES) {
+        int highestMarble = params[1] * scale;
+        benchmark.run(
+            "Day09.getHighScore",
+            input + " x" + scale,
+            () -> Day09.getHighScore(numPlayers, highestMarble));
+      }
+    }
+  }
+}
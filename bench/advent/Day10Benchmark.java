@@ -0,0 +1,26 @@
+package advent;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/** Benchmarks for the hot paths of {@link Day10}. */
+public class Day10Benchmark {
+  private static final String[] INPUTS = {"test/10_0.txt", "input/10.txt"};
+
+  public static void main(String[] args) throws Exception {
+    run(new Benchmark(args));
+  }
+
+  static void run(Benchmark benchmark) throws Exception {
+    for (String input : INPUTS) {
+      // Points are moved in place, so each run needs freshly parsed points
+      benchmark.runWithFreshInput(
+          "Day10.getTimeOfMaxPercentWithNeighbors",
+          input,
+          () -> LineSource.map(input).lines().map(Day10.Point::new).collect(Collectors.toList()),
+          (List<Day10.Point> points) ->
+              Day10.getTimeOfMaxPercentWithNeighbors(new HashSet<>(points.size()), points));
+    }
+  }
+}
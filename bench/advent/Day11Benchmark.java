@@ -0,0 +1,29 @@
+package advent;
+
+/** Benchmarks for the hot paths of {@link Day11}. */
+public class Day11Benchmark {
+  /* Serial numbers from the puzzle examples, followed by the puzzle input */
+  private static final String[] INPUTS = {"18", "42", "input/11.txt"};
+
+  public static void main(String[] args) throws Exception {
+    run(new Benchmark(args));
+  }
+
+  static void run(Benchmark benchmark) throws Exception {
+    for (String input : INPUTS) {
+      int serialNumber =
+          input.startsWith("input/")
+              ? Integer.parseInt(FileUtility.fileToString(input))
+              : Integer.parseInt(input);
+
+      benchmark.run(
+          "Day11.findMaxFuelSquare",
+          input,
+          () -> Day11.findMaxFuelSquare(3, Day11::sumSquare, serialNumber));
+      benchmark.run(
+          "Day11.findMaxFuelSquareAllSizes",
+          input,
+          () -> Day11.findMaxFuelSquareAllSizes(serialNumber));
+    }
+  }
+}
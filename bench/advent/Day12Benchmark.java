@@ -0,0 +1,33 @@
+package advent;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/** Benchmarks for the hot paths of {@link Day12}. */
+public class Day12Benchmark {
+  private static final String[] INPUTS = {"input/12.txt"};
+  private static final int[] GENERATIONS = {20, 200, 2000};
+
+  public static void main(String[] args) throws Exception {
+    run(new Benchmark(args));
+  }
+
+  static void run(Benchmark benchmark) throws Exception {
+    for (String input : INPUTS) {
+      String[] lines = FileUtility.fileToLines(input);
+      String initialState = ParseUtility.firstMatch(lines[0], Day12.PLANT_PATTERN);
+      Map<String, Character> rules = Day12.parseRules(Arrays.copyOfRange(lines, 2, lines.length));
+
+      for (int generations : GENERATIONS) {
+        benchmark.run(
+            "Day12.getFinalState",
+            input + " g=" + generations,
+            () -> Day12.getFinalState(initialState, rules, generations));
+      }
+      benchmark.run(
+          "Day12.getLongTermSum",
+          input,
+          () -> Day12.getLongTermSum(rules, initialState, 50_000_000_000L));
+    }
+  }
+}
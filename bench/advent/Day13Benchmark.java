@@ -0,0 +1,29 @@
+package advent;
+
+import java.util.List;
+
+/** Benchmarks for the hot paths of {@link Day13}. */
+public class Day13Benchmark {
+  // test/13_0.txt is omitted: it only has two carts, so no last cart is ever left standing
+  private static final String[] INPUTS = {"test/13_1.txt", "input/13.txt"};
+
+  public static void main(String[] args) throws Exception {
+    run(new Benchmark(args));
+  }
+
+  static void run(Benchmark benchmark) throws Exception {
+    for (String input : benchmark.getInputs("13", INPUTS)) {
+      String[] lines = FileUtility.fileToLines(input);
+
+      // Carts move in place, so each run needs a freshly parsed map
+      benchmark.runWithFreshInput(
+          "Day13.getCartOutcomes",
+          input,
+          () -> Day13.parseMap(lines),
+          map -> {
+            List<Day13.Cart> carts = Day13.parseCarts(map);
+            return Day13.getCartOutcomes(map, carts);
+          });
+    }
+  }
+}
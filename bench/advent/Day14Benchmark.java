@@ -0,0 +1,31 @@
+package advent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Benchmarks for the hot paths of {@link Day14}. */
+public class Day14Benchmark {
+  private static final String[] INPUTS = {
+    "test/14_0.txt",
+    "test/14_1.txt",
+    "test/14_2.txt",
+    "test/14_3.txt",
+    "test/14_4.txt",
+    "input/14.txt"
+  };
+
+  public static void main(String[] args) throws Exception {
+    run(new Benchmark(args));
+  }
+
+  static void run(Benchmark benchmark) throws Exception {
+    for (String input : INPUTS) {
+      int baseScoreCount = Integer.parseInt(FileUtility.fileToString(input));
+      List<Integer> digits = new ArrayList<>(Day14.getDigits(baseScoreCount));
+      benchmark.run(
+          "Day14.generateEnoughScores",
+          input,
+          () -> Day14.generateEnoughScores(baseScoreCount, digits));
+    }
+  }
+}
@@ -0,0 +1,34 @@
+package advent;
+
+import java.util.Map;
+
+/** Benchmarks for the hot paths of {@link Day16}. */
+public class Day16Benchmark {
+  private static final String[] INPUTS = {"test/16_0.txt", "input/16.txt"};
+
+  public static void main(String[] args) throws Exception {
+    run(new Benchmark(args));
+  }
+
+  static void run(Benchmark benchmark) throws Exception {
+    for (String input : INPUTS) {
+      String[] parts = FileUtility.fileToString(input).split("\n\n\n\n");
+      benchmark.run("Day16.parseSamples", input, () -> Day16.parseSamples(parts[0]));
+
+      // Only the puzzle input has a program to run
+      if (parts.length > 1) {
+        benchmark.runWithFreshInput(
+            "Day16.deriveOpcodes",
+            input,
+            () -> Day16.parseSamples(parts[0]),
+            Day16::deriveOpcodes);
+
+        Map<Integer, Day16.Op> opcodes = Day16.deriveOpcodes(Day16.parseSamples(parts[0]));
+        benchmark.run(
+            "Day16.runProgramAndGetRegisters",
+            input,
+            () -> Day16.runProgramAndGetRegisters(parts[1], opcodes));
+      }
+    }
+  }
+}
@@ -0,0 +1,23 @@
+package advent;
+
+/** Benchmarks for the hot paths of {@link Day17}. */
+public class Day17Benchmark {
+  private static final String[] INPUTS = {"test/17_0.txt", "test/17_1.txt", "input/17.txt"};
+
+  public static void main(String[] args) throws Exception {
+    run(new Benchmark(args));
+  }
+
+  static void run(Benchmark benchmark) throws Exception {
+    for (String input : benchmark.getInputs("17", INPUTS)) {
+      String[] lines = FileUtility.fileToLines(input);
+
+      // Water is written into the world, so each run needs a freshly parsed world
+      benchmark.runWithFreshInput(
+          "Day17.produceWater",
+          input,
+          () -> Day17.parseWorld(lines),
+          world -> Day17.produceWater(world, 500, world.getMinY()));
+    }
+  }
+}
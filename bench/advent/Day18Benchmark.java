@@ -0,0 +1,21 @@
+package advent;
+
+/** Benchmarks for the hot paths of {@link Day18}. */
+public class Day18Benchmark {
+  private static final String[] INPUTS = {"test/18_0.txt", "input/18.txt"};
+  private static final int[] MINUTES = {10, 1000, 1_000_000_000};
+
+  public static void main(String[] args) throws Exception {
+    run(new Benchmark(args));
+  }
+
+  static void run(Benchmark benchmark) throws Exception {
+    for (String input : benchmark.getInputs("18", INPUTS)) {
+      ByteGrid world = Day18.parseWorld(FileUtility.fileToString(input));
+      for (int minutes : MINUTES) {
+        benchmark.run(
+            "Day18.simulate", input + " m=" + minutes, () -> Day18.simulate(world, minutes));
+      }
+    }
+  }
+}
@@ -0,0 +1,29 @@
+package advent;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/** Benchmarks for the hot paths of {@link Day19}. */
+public class Day19Benchmark {
+  private static final String[] INPUTS = {"test/19_0.txt", "input/19.txt"};
+
+  public static void main(String[] args) throws Exception {
+    run(new Benchmark(args));
+  }
+
+  static void run(Benchmark benchmark) throws Exception {
+    for (String input : INPUTS) {
+      String[] lines = FileUtility.fileToLines(input);
+      int boundToRegister = ParseUtility.extractInts(lines[0])[0];
+      List<Day19.Instruction> instructions =
+          Arrays.stream(lines).skip(1).map(Day19.Instruction::new).collect(Collectors.toList());
+
+      benchmark.run(
+          "Day19.compile", input, () -> Day19.compile(instructions, boundToRegister));
+
+      CompiledProgram program = Day19.compile(instructions, boundToRegister);
+      benchmark.run("Day19.executeProgram", input, () -> Day19.executeProgram(program, 0));
+    }
+  }
+}
@@ -0,0 +1,19 @@
+package advent;
+
+/** Benchmarks for the hot paths of {@link Day21}. */
+public class Day21Benchmark {
+  private static final int[] ITERATIONS = {1, 1 << 16, 1 << 20, 1 << 24};
+
+  public static void main(String[] args) throws Exception {
+    run(new Benchmark(args));
+  }
+
+  static void run(Benchmark benchmark) throws Exception {
+    for (int iterations : ITERATIONS) {
+      benchmark.run(
+          "Day21.getLastUniqueValueOfR2",
+          "n=" + iterations,
+          () -> Day21.getLastUniqueValueOfR2(iterations));
+    }
+  }
+}
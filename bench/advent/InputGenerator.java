@@ -0,0 +1,410 @@
+package advent;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Writes synthetic puzzle inputs that are {@code scale} times the size of the real ones, for
+ * load-testing the solvers. The same day, scale and seed always produce the same file.
+ *
+ * <p>Scale multiplies the amount of input (lines, claims, characters, carts...). Where a day's
+ * input is laid out on a plane, each side grows by the square root of the scale instead, so that
+ * density stays comparable to the real input.
+ *
+ * <p>Arguments: {@code [--seed N] [--dir DIR] SCALE [DAY...]}. Files are written to
+ * "generated/NN_xSCALE_sSEED.txt" unless another directory is given.
+ */
+public class InputGenerator {
+
+  @FunctionalInterface
+  interface Generator {
+    void generate(Random random, int scale, PrintWriter out);
+  }
+
+  static final String DEFAULT_DIRECTORY = "generated";
+  static final long DEFAULT_SEED = 2018;
+
+  private static final LocalDate FIRST_GUARD_LOG_DATE = LocalDate.of(1518, 1, 1);
+
+  private static final Map<String, Generator> GENERATORS = new LinkedHashMap<>();
+
+  static {
+    GENERATORS.put("01", InputGenerator::generateFrequencyChanges);
+    GENERATORS.put("02", InputGenerator::generateBoxIds);
+    GENERATORS.put("03", InputGenerator::generateClaims);
+    GENERATORS.put("04", InputGenerator::generateGuardLog);
+    GENERATORS.put("05", InputGenerator::generatePolymer);
+    GENERATORS.put("06", InputGenerator::generateCoordinates);
+    GENERATORS.put("07", InputGenerator::generateStepInstructions);
+    GENERATORS.put("13", InputGenerator::generateTracks);
+    GENERATORS.put("17", InputGenerator::generateClayScan);
+    GENERATORS.put("18", InputGenerator::generateLumberArea);
+  }
+
+  public static void main(String[] args) throws IOException {
+    long seed = DEFAULT_SEED;
+    String directory = DEFAULT_DIRECTORY;
+    Integer scale = null;
+    List<String> days = new ArrayList<>();
+    for (int i = 0; i < args.length; i++) {
+      switch (args[i]) {
+        case "--seed":
+          seed = Long.parseLong(args[++i]);
+          break;
+        case "--dir":
+          directory = args[++i];
+          break;
+        default:
+          if (scale == null) {
+            scale = Integer.parseInt(args[i]);
+          } else {
+            days.add(args[i]);
+          }
+      }
+    }
+    if (scale == null) {
+      System.err.println("Usage: InputGenerator [--seed N] [--dir DIR] SCALE [DAY...]");
+      System.exit(1);
+    }
+    if (days.isEmpty()) {
+      days.addAll(getDays());
+    }
+
+    for (String day : days) {
+      System.out.println(getOrGenerate(directory, day, scale, seed));
+    }
+  }
+
+  public static Set<String> getDays() {
+    return Collections.unmodifiableSet(GENERATORS.keySet());
+  }
+
+  public static boolean hasGenerator(String day) {
+    return GENERATORS.containsKey(day);
+  }
+
+  /** Returns the path of the requested input, generating it first if it doesn't exist yet. */
+  public static String getOrGenerate(String directory, String day, int scale, long seed)
+      throws IOException {
+    Generator generator = GENERATORS.get(day);
+    if (generator == null) {
+      throw new IllegalArgumentException("No input generator for day " + day);
+    }
+    if (scale < 1) {
+      throw new IllegalArgumentException("Scale must be positive: " + scale);
+    }
+
+    Path path = Paths.get(directory, day + "_x" + scale + "_s" + seed + ".txt");
+    if (!Files.exists(path)) {
+      Files.createDirectories(path.toAbsolutePath().getParent());
+
+      // Written under a temporary name so that an interrupted run never leaves a partial input
+      Path partial = Paths.get(path + ".partial");
+      try (PrintWriter out =
+          new PrintWriter(Files.newBufferedWriter(partial, StandardCharsets.US_ASCII))) {
+        generator.generate(new Random(seed), scale, out);
+      }
+      Files.move(partial, path);
+    }
+    return path.toString();
+  }
+
+  /**
+   * Like the real input, no frequency repeats within the first pass, and the net drift per pass is
+   * smaller than the number of changes, which guarantees that part two terminates (two of the
+   * frequencies must share a residue modulo the drift).
+   */
+  private static void generateFrequencyChanges(Random random, int scale, PrintWriter out) {
+    int count = 1000 * scale;
+    Set<Long> seen = new HashSet<>();
+    long frequency = 0;
+    seen.add(frequency);
+    for (int i = 0; i < count - 1; i++) {
+      int change;
+      do {
+        change = (1 + random.nextInt(1000)) * (random.nextBoolean() ? 1 : -1);
+      } while (seen.contains(frequency + change));
+      frequency += change;
+      seen.add(frequency);
+      printFrequencyChange(out, change);
+    }
+
+    long drift;
+    do {
+      drift = 1 + random.nextInt(count / 2);
+    } while (seen.contains(drift));
+    printFrequencyChange(out, drift - frequency);
+  }
+
+  private static void printFrequencyChange(PrintWriter out, long change) {
+    out.println(change >= 0 ? "+" + change : Long.toString(change));
+  }
+
+  /** Random IDs plus exactly one planted pair that differs by a single letter. */
+  private static void generateBoxIds(Random random, int scale, PrintWriter out) {
+    int count = 250 * scale;
+    int plantedIndex = random.nextInt(count - 1);
+    for (int i = 0; i < count - 1; i++) {
+      char[] id = new char[26];
+      for (int j = 0; j < id.length; j++) {
+        id[j] = (char) ('a' + random.nextInt(26));
+      }
+      out.println(id);
+
+      if (i == plantedIndex) {
+        int position = random.nextInt(id.length);
+        id[position] = (char) ('a' + (id[position] - 'a' + 1 + random.nextInt(25)) % 26);
+        out.println(id);
+      }
+    }
+  }
+
+  private static void generateClaims(Random random, int scale, PrintWriter out) {
+    int count = 1300 * scale;
+    int side = (int) Math.round(1000 * Math.sqrt(scale));
+    for (int id = 1; id <= count; id++) {
+      int width = 10 + random.nextInt(20);
+      int height = 10 + random.nextInt(20);
+      int x = random.nextInt(side - width);
+      int y = random.nextInt(side - height);
+      out.println("#" + id + " @ " + x + "," + y + ": " + width + "x" + height);
+    }
+  }
+
+  /**
+   * Shifts start shortly before or after midnight and contain up to four non-overlapping naps, on
+   * consecutive days of the real calendar from 1518-01-01.
+   */
+  private static void generateGuardLog(Random random, int scale, PrintWriter out) {
+    int shifts = 330 * scale;
+    int[] guardIds = new int[(int) Math.round(20 * Math.sqrt(scale))];
+    Set<Integer> usedIds = new HashSet<>();
+    for (int i = 0; i < guardIds.length; i++) {
+      do {
+        guardIds[i] = 10 + random.nextInt(9990);
+      } while (!usedIds.add(guardIds[i]));
+    }
+
+    List<String> events = new ArrayList<>();
+    for (int day = 1; day <= shifts; day++) {
+      int guardId = guardIds[random.nextInt(guardIds.length)];
+      String start =
+          random.nextBoolean()
+              ? getTimestamp(day - 1, 23, 50 + random.nextInt(10))
+              : getTimestamp(day, 0, random.nextInt(3));
+      events.add(start + " Guard #" + guardId + " begins shift");
+
+      int minute = 3 + random.nextInt(10);
+      for (int nap = random.nextInt(5); nap > 0 && minute < 58; nap--) {
+        int wake = minute + 1 + random.nextInt(59 - minute);
+        events.add(getTimestamp(day, 0, minute) + " falls asleep");
+        events.add(getTimestamp(day, 0, wake) + " wakes up");
+        minute = wake + 1 + random.nextInt(5);
+      }
+    }
+
+    // The real log is unsorted too
+    Collections.shuffle(events, random);
+    for (String event : events) {
+      out.println(event);
+    }
+  }
+
+  private static String getTimestamp(int day, int hour, int minute) {
+    LocalDate date = FIRST_GUARD_LOG_DATE.plusDays(day);
+    return String.format(
+        "[%04d-%02d-%02d %02d:%02d]",
+        date.getYear(), date.getMonthValue(), date.getDayOfMonth(), hour, minute);
+  }
+
+  /** Often follows a unit with its opposite, so that reactions cascade as they do in real input. */
+  private static void generatePolymer(Random random, int scale, PrintWriter out) {
+    int length = 50_000 * scale;
+    char previous = 'a';
+    for (int i = 0; i < length; i++) {
+      char unit;
+      if (i > 0 && random.nextInt(10) < 3) {
+        unit =
+            Character.isLowerCase(previous)
+                ? Character.toUpperCase(previous)
+                : Character.toLowerCase(previous);
+      } else {
+        unit = (char) ((random.nextBoolean() ? 'a' : 'A') + random.nextInt(26));
+      }
+      out.print(unit);
+      previous = unit;
+    }
+  }
+
+  private static void generateCoordinates(Random random, int scale, PrintWriter out) {
+    int count = 50 * scale;
+    int side = (int) Math.round(320 * Math.sqrt(scale));
+    for (int i = 0; i < count; i++) {
+      out.println((40 + random.nextInt(side)) + ", " + (40 + random.nextInt(side)));
+    }
+  }
+
+  /**
+   * Steps are named like spreadsheet columns (A to Z, then AA, AB...) and ordered at random. Each
+   * step after the first depends on one to four steps shortly before it in that order, which keeps
+   * the graph acyclic and connected, while leaving many steps ready at once.
+   */
+  private static void generateStepInstructions(Random random, int scale, PrintWriter out) {
+    int count = 26 * scale;
+    List<String> names = new ArrayList<>(count);
+    for (int i = 1; i <= count; i++) {
+      StringBuilder name = new StringBuilder();
+      for (int n = i; n > 0; n = (n - 1) / 26) {
+        name.append((char) ('A' + (n - 1) % 26));
+      }
+      names.add(name.reverse().toString());
+    }
+    Collections.shuffle(names, random);
+
+    for (int i = 1; i < count; i++) {
+      int window = Math.min(i, 64);
+      Set<Integer> priors = new HashSet<>();
+      int priorCount = 1 + random.nextInt(4);
+      for (int j = 0; j < priorCount; j++) {
+        priors.add(i - 1 - random.nextInt(window));
+      }
+      for (int prior : priors) {
+        out.println(
+            "Step " + names.get(prior) + " must be finished before step " + names.get(i)
+                + " can begin.");
+      }
+    }
+  }
+
+  /**
+   * A field of separate rectangular loops. Each loop holds an even number of carts whose directions
+   * alternate around it, so every cart eventually collides with a neighbour, except for one lone
+   * cart that is left standing.
+   */
+  private static void generateTracks(Random random, int scale, PrintWriter out) {
+    int cellSize = 40;
+    int loops = 40 * scale;
+    int columns = (int) Math.ceil(Math.sqrt(loops));
+    int rows = (loops + columns - 1) / columns;
+    char[][] map = new char[rows * cellSize][columns * cellSize];
+    for (char[] row : map) {
+      Arrays.fill(row, ' ');
+    }
+
+    int loneLoop = random.nextInt(loops);
+    for (int loop = 0; loop < loops; loop++) {
+      int width = 6 + random.nextInt(cellSize - 8);
+      int height = 6 + random.nextInt(cellSize - 8);
+      int left = (loop % columns) * cellSize + random.nextInt(cellSize - width - 1);
+      int top = (loop / columns) * cellSize + random.nextInt(cellSize - height - 1);
+      int right = left + width - 1;
+      int bottom = top + height - 1;
+
+      for (int x = left + 1; x < right; x++) {
+        map[top][x] = '-';
+        map[bottom][x] = '-';
+      }
+      for (int y = top + 1; y < bottom; y++) {
+        map[y][left] = '|';
+        map[y][right] = '|';
+      }
+      map[top][left] = '/';
+      map[top][right] = '\\';
+      map[bottom][left] = '\\';
+      map[bottom][right] = '/';
+
+      // Clockwise positions around the loop, excluding corners
+      List<int[]> positions = new ArrayList<>();
+      for (int x = left + 1; x < right; x++) {
+        positions.add(new int[] {x, top, '>', '<'});
+      }
+      for (int y = top + 1; y < bottom; y++) {
+        positions.add(new int[] {right, y, 'v', '^'});
+      }
+      for (int x = right - 1; x > left; x--) {
+        positions.add(new int[] {x, bottom, '<', '>'});
+      }
+      for (int y = bottom - 1; y > top; y--) {
+        positions.add(new int[] {left, y, '^', 'v'});
+      }
+
+      int carts = (loop == loneLoop) ? 1 : 2 * random.nextInt(4);
+      List<Integer> chosen = new ArrayList<>();
+      for (int i = 0; i < positions.size(); i++) {
+        chosen.add(i);
+      }
+      Collections.shuffle(chosen, random);
+      chosen = chosen.subList(0, carts);
+      Collections.sort(chosen);
+      for (int i = 0; i < chosen.size(); i++) {
+        int[] position = positions.get(chosen.get(i));
+        map[position[1]][position[0]] = (char) (i % 2 == 0 ? position[2] : position[3]);
+      }
+    }
+
+    for (char[] row : map) {
+      out.println(row);
+    }
+  }
+
+  /**
+   * Clay basins (two walls and a floor) and loose shelves scattered below the spring at x=500. The
+   * scan mostly grows downwards, since the real input is already several times taller than wide.
+   */
+  private static void generateClayScan(Random random, int scale, PrintWriter out) {
+    int cellWidth = 40;
+    int cellHeight = 60;
+    int columns = (int) Math.min(Math.round(5 * Math.sqrt(scale)), 22);
+    int rows = (int) Math.round(32.0 * scale * 5 / columns);
+    int minX = 500 - columns * cellWidth / 2;
+
+    for (int row = 0; row < rows; row++) {
+      for (int column = 0; column < columns; column++) {
+        int kind = random.nextInt(4);
+        if (kind == 0) {
+          continue;
+        }
+
+        int width = 3 + random.nextInt(cellWidth - 6);
+        int left = minX + column * cellWidth + 1 + random.nextInt(cellWidth - width - 2);
+        int right = left + width - 1;
+        int top = 2 + row * cellHeight + random.nextInt(cellHeight / 2);
+        int bottom = top + 2 + random.nextInt(cellHeight / 2 - 4);
+
+        if (kind == 1) {
+          out.println("y=" + bottom + ", x=" + left + ".." + right);
+        } else {
+          out.println("x=" + left + ", y=" + top + ".." + bottom);
+          out.println("x=" + right + ", y=" + (top + random.nextInt(bottom - top)) + ".." + bottom);
+          out.println("y=" + bottom + ", x=" + left + ".." + right);
+        }
+      }
+    }
+  }
+
+  private static void generateLumberArea(Random random, int scale, PrintWriter out) {
+    int side = (int) Math.round(50 * Math.sqrt(scale));
+    char[] acres = {'.', '|', '#'};
+    char[] row = new char[side];
+    for (int y = 0; y < side; y++) {
+      for (int x = 0; x < side; x++) {
+        row[x] = acres[random.nextInt(acres.length)];
+      }
+      out.println(row);
+    }
+  }
+}
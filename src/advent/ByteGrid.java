@@ -0,0 +1,102 @@
+package advent;
+
+import java.util.Arrays;
+
+/**
+ * {@link Grid} of bytes, typically enum ordinals. Cells are drawn through a palette that maps each
+ * byte value to a character.
+ */
+public class ByteGrid extends Grid {
+  private final byte[] cells;
+  private final char[] palette;
+
+  /** @param palette icon for each cell value, indexed by value */
+  public ByteGrid(int minX, int minY, int width, int height, char[] palette) {
+    super(minX, minY, width, height);
+    this.cells = new byte[width * height];
+    this.palette = palette;
+  }
+
+  /** Returns an empty grid with the same bounds and palette. */
+  public ByteGrid emptyCopy() {
+    return new ByteGrid(minX, minY, width, height, palette);
+  }
+
+  public byte get(int x, int y) {
+    return cells[indexOf(x, y)];
+  }
+
+  /** Returns {@code outside} for coordinates outside of the grid. */
+  public byte getOrDefault(int x, int y, byte outside) {
+    return isInBounds(x, y) ? cells[indexOf(x, y)] : outside;
+  }
+
+  public void set(int x, int y, byte value) {
+    cells[indexOf(x, y)] = value;
+  }
+
+  public byte get(int index) {
+    return cells[index];
+  }
+
+  public void set(int index, byte value) {
+    cells[index] = value;
+  }
+
+  public void fill(byte value) {
+    Arrays.fill(cells, value);
+  }
+
+  public int count(byte value) {
+    int count = 0;
+    for (byte cell : cells) {
+      if (cell == value) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /** Counts how many of the (up to) 8 cells surrounding (x, y) hold {@code value}. */
+  public int countNeighbors(int x, int y, byte value) {
+    int xStart = Math.max(x - 1, minX) - minX;
+    int xEnd = Math.min(x + 1, getMaxX()) - minX;
+    int yStart = Math.max(y - 1, minY) - minY;
+    int yEnd = Math.min(y + 1, getMaxY()) - minY;
+    int center = indexOf(x, y);
+
+    int count = 0;
+    for (int row = yStart; row <= yEnd; row++) {
+      for (int index = row * width + xStart; index <= row * width + xEnd; index++) {
+        if (cells[index] == value && index != center) {
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  @Override
+  protected char getIcon(int index) {
+    return palette[cells[index]];
+  }
+
+  /** Grids are equal if they have the same bounds and contents. */
+  @Override
+  public boolean equals(Object obj) {
+    if (!(obj instanceof ByteGrid)) {
+      return false;
+    }
+
+    ByteGrid other = (ByteGrid) obj;
+    return minX == other.minX
+        && minY == other.minY
+        && width == other.width
+        && Arrays.equals(cells, other.cells);
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(cells);
+  }
+}
@@ -0,0 +1,67 @@
+package advent;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A window onto a run of ASCII bytes inside a (typically memory-mapped) buffer, exposed as a
+ * {@link CharSequence} so it can be handed to code that expects text without copying it first.
+ */
+public class ByteSlice implements CharSequence {
+  private ByteBuffer buffer;
+  private int start;
+  private int end;
+
+  ByteSlice() {}
+
+  public ByteSlice(ByteBuffer buffer, int start, int end) {
+    reset(buffer, start, end);
+  }
+
+  void reset(ByteBuffer buffer, int start, int end) {
+    this.buffer = buffer;
+    this.start = start;
+    this.end = end;
+  }
+
+  /** Returns the raw byte at {@code index}, relative to the start of the slice. */
+  public byte byteAt(int index) {
+    return buffer.get(start + index);
+  }
+
+  public boolean startsWith(String prefix) {
+    if (prefix.length() > length()) {
+      return false;
+    }
+
+    for (int i = 0; i < prefix.length(); i++) {
+      if (byteAt(i) != prefix.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int length() {
+    return end - start;
+  }
+
+  @Override
+  public char charAt(int index) {
+    return (char) (byteAt(index) & 0xFF);
+  }
+
+  @Override
+  public ByteSlice subSequence(int start, int end) {
+    return new ByteSlice(buffer, this.start + start, this.start + end);
+  }
+
+  @Override
+  public String toString() {
+    char[] chars = new char[length()];
+    for (int i = 0; i < chars.length; i++) {
+      chars[i] = charAt(i);
+    }
+    return new String(chars);
+  }
+}
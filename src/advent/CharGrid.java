@@ -0,0 +1,53 @@
+package advent;
+
+import java.util.Arrays;
+
+/** {@link Grid} of characters, drawn as-is. */
+public class CharGrid extends Grid {
+  private final char[] cells;
+
+  public CharGrid(int minX, int minY, int width, int height) {
+    super(minX, minY, width, height);
+    this.cells = new char[width * height];
+  }
+
+  /**
+   * Builds a grid from lines of text, with (0, 0) at the start of the first line. Lines shorter
+   * than the longest line are padded with spaces.
+   */
+  public static CharGrid fromLines(String[] lines) {
+    int width = Arrays.stream(lines).mapToInt(String::length).max().orElse(0);
+    CharGrid grid = new CharGrid(0, 0, width, lines.length);
+    grid.fill(' ');
+
+    for (int y = 0; y < lines.length; y++) {
+      lines[y].getChars(0, lines[y].length(), grid.cells, y * width);
+    }
+    return grid;
+  }
+
+  public char get(int x, int y) {
+    return cells[indexOf(x, y)];
+  }
+
+  public void set(int x, int y, char value) {
+    cells[indexOf(x, y)] = value;
+  }
+
+  public char get(int index) {
+    return cells[index];
+  }
+
+  public void set(int index, char value) {
+    cells[index] = value;
+  }
+
+  public void fill(char value) {
+    Arrays.fill(cells, value);
+  }
+
+  @Override
+  protected char getIcon(int index) {
+    return cells[index];
+  }
+}
@@ -0,0 +1,212 @@
+package advent;
+
+import advent.Day03.Claim;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A spatial index over {@link Claim} rectangles, answering point and rectangle queries without
+ * visiting every claim or materializing the fabric.
+ *
+ * <p>The claims' bounding box is split into a uniform grid of buckets, sized from the claims' mean
+ * width and height so that a typical claim lands in only a few of them. Buckets are stored
+ * compactly, as one array of claim indices with an offset per bucket. A claim spanning several
+ * buckets is only reported from the one holding the top-left corner of its intersection with the
+ * query, so results contain no duplicates without needing a visited set.
+ */
+public class ClaimIndex {
+
+  /* Upper bound on buckets per claim, so sparse fabrics don't get huge, mostly empty grids */
+  private static final int MAX_BUCKETS_PER_CLAIM = 4;
+
+  private final List<Claim> claims;
+
+  private final int originX;
+  private final int originY;
+  private final int cellWidth;
+  private final int cellHeight;
+  private final int columns;
+  private final int rows;
+
+  /* Bucket b holds the claims at entries[bucketStarts[b]] to entries[bucketStarts[b + 1] - 1] */
+  private final int[] bucketStarts;
+  private final int[] entries;
+
+  public ClaimIndex(List<Claim> claims) {
+    this.claims = claims;
+
+    int minX = Integer.MAX_VALUE;
+    int minY = Integer.MAX_VALUE;
+    int maxX = Integer.MIN_VALUE;
+    int maxY = Integer.MIN_VALUE;
+    long totalWidth = 0;
+    long totalHeight = 0;
+    int nonEmpty = 0;
+    for (Claim claim : claims) {
+      if (isEmpty(claim)) {
+        continue;
+      }
+      minX = Math.min(minX, claim.xStart);
+      minY = Math.min(minY, claim.yStart);
+      maxX = Math.max(maxX, claim.xEnd);
+      maxY = Math.max(maxY, claim.yEnd);
+      totalWidth += claim.xEnd - claim.xStart;
+      totalHeight += claim.yEnd - claim.yStart;
+      nonEmpty++;
+    }
+    if (nonEmpty == 0) {
+      minX = minY = 0;
+      maxX = maxY = 1;
+      nonEmpty = 1;
+    }
+
+    long width = (long) maxX - minX;
+    long height = (long) maxY - minY;
+    long cellWidth = Math.max(1, (totalWidth + nonEmpty - 1) / nonEmpty);
+    long cellHeight = Math.max(1, (totalHeight + nonEmpty - 1) / nonEmpty);
+    long maxBuckets = (long) MAX_BUCKETS_PER_CLAIM * nonEmpty;
+    while (ceilDiv(width, cellWidth) * ceilDiv(height, cellHeight) > maxBuckets) {
+      cellWidth *= 2;
+      cellHeight *= 2;
+    }
+
+    this.originX = minX;
+    this.originY = minY;
+    this.cellWidth = (int) Math.min(cellWidth, width);
+    this.cellHeight = (int) Math.min(cellHeight, height);
+    this.columns = (int) ceilDiv(width, this.cellWidth);
+    this.rows = (int) ceilDiv(height, this.cellHeight);
+
+    // Count each bucket's claims, turn the counts into offsets, then fill the buckets in
+    bucketStarts = new int[columns * rows + 1];
+    for (Claim claim : claims) {
+      if (!isEmpty(claim)) {
+        forEachBucket(claim, bucket -> bucketStarts[bucket + 1]++);
+      }
+    }
+    for (int bucket = 0; bucket < columns * rows; bucket++) {
+      bucketStarts[bucket + 1] += bucketStarts[bucket];
+    }
+    entries = new int[bucketStarts[columns * rows]];
+    int[] next = bucketStarts.clone();
+    for (int i = 0; i < claims.size(); i++) {
+      int index = i;
+      if (!isEmpty(claims.get(i))) {
+        forEachBucket(claims.get(i), bucket -> entries[next[bucket]++] = index);
+      }
+    }
+  }
+
+  /** Returns the claims covering the square inch at ({@code x}, {@code y}). */
+  public List<Claim> getClaimsAt(int x, int y) {
+    List<Claim> found = new ArrayList<>();
+    int column = columnOf(x);
+    int row = rowOf(y);
+    if (column < 0 || column >= columns || row < 0 || row >= rows) {
+      return found;
+    }
+
+    int bucket = row * columns + column;
+    for (int i = bucketStarts[bucket]; i < bucketStarts[bucket + 1]; i++) {
+      Claim claim = claims.get(entries[i]);
+      if (claim.xStart <= x && x < claim.xEnd && claim.yStart <= y && y < claim.yEnd) {
+        found.add(claim);
+      }
+    }
+    return found;
+  }
+
+  /** Returns the claims sharing at least one square inch with [xStart, xEnd) x [yStart, yEnd). */
+  public List<Claim> getClaimsIntersecting(int xStart, int yStart, int xEnd, int yEnd) {
+    List<Claim> found = new ArrayList<>();
+    findIntersecting(xStart, yStart, xEnd, yEnd, null, found);
+    return found;
+  }
+
+  /** Returns the other claims sharing at least one square inch with {@code claim}. */
+  public List<Claim> getClaimsIntersecting(Claim claim) {
+    List<Claim> found = new ArrayList<>();
+    findIntersecting(claim.xStart, claim.yStart, claim.xEnd, claim.yEnd, claim, found);
+    return found;
+  }
+
+  /** Returns true if any other claim shares a square inch with {@code claim}. */
+  public boolean intersectsAny(Claim claim) {
+    return findIntersecting(claim.xStart, claim.yStart, claim.xEnd, claim.yEnd, claim, null);
+  }
+
+  /**
+   * Finds the claims, other than {@code exclude}, intersecting the given rectangle, adding them to
+   * {@code found}. If {@code found} is null, stops at the first, and returns whether there was one.
+   */
+  private boolean findIntersecting(
+      int xStart, int yStart, int xEnd, int yEnd, Claim exclude, List<Claim> found) {
+    if (xStart >= xEnd || yStart >= yEnd) {
+      return false;
+    }
+    int firstColumn = Math.max(0, columnOf(xStart));
+    int lastColumn = Math.min(columns - 1, columnOf(xEnd - 1));
+    int firstRow = Math.max(0, rowOf(yStart));
+    int lastRow = Math.min(rows - 1, rowOf(yEnd - 1));
+
+    boolean any = false;
+    for (int row = firstRow; row <= lastRow; row++) {
+      for (int column = firstColumn; column <= lastColumn; column++) {
+        int bucket = row * columns + column;
+        for (int i = bucketStarts[bucket]; i < bucketStarts[bucket + 1]; i++) {
+          Claim claim = claims.get(entries[i]);
+          if (claim == exclude
+              || claim.xStart >= xEnd
+              || xStart >= claim.xEnd
+              || claim.yStart >= yEnd
+              || yStart >= claim.yEnd) {
+            continue;
+          }
+          // Only report the claim from the bucket holding the intersection's top-left corner
+          if (columnOf(Math.max(xStart, claim.xStart)) != column
+              || rowOf(Math.max(yStart, claim.yStart)) != row) {
+            continue;
+          }
+
+          if (found == null) {
+            return true;
+          }
+          found.add(claim);
+          any = true;
+        }
+      }
+    }
+    return any;
+  }
+
+  private interface BucketVisitor {
+    void visit(int bucket);
+  }
+
+  private void forEachBucket(Claim claim, BucketVisitor visitor) {
+    int lastColumn = columnOf(claim.xEnd - 1);
+    int lastRow = rowOf(claim.yEnd - 1);
+    for (int row = rowOf(claim.yStart); row <= lastRow; row++) {
+      for (int column = columnOf(claim.xStart); column <= lastColumn; column++) {
+        visitor.visit(row * columns + column);
+      }
+    }
+  }
+
+  /* Coordinates outside the indexed claims' bounding box map to -1 or columns (rows) */
+  private int columnOf(int x) {
+    return (int) Math.max(-1, Math.min(columns, Math.floorDiv((long) x - originX, cellWidth)));
+  }
+
+  private int rowOf(int y) {
+    return (int) Math.max(-1, Math.min(rows, Math.floorDiv((long) y - originY, cellHeight)));
+  }
+
+  private static boolean isEmpty(Claim claim) {
+    return claim.xStart >= claim.xEnd || claim.yStart >= claim.yEnd;
+  }
+
+  private static long ceilDiv(long dividend, long divisor) {
+    return (dividend + divisor - 1) / divisor;
+  }
+}
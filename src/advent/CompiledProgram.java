@@ -0,0 +1,182 @@
+package advent;
+
+import advent.Day16.InputType;
+import java.util.Arrays;
+
+/**
+ * A program of {@link Day16.Op} instructions, decoded once into a flat array of (op, a, b, c)
+ * quadruples and executed by a single switch. Running it involves no opcode lookups, no branches on
+ * operand types and no calls through {@link Day16.OpFunction}.
+ *
+ * <p>Programs may bind the instruction pointer to a register (as in day 19), so that instructions
+ * can jump by writing to it. That register always holds the current instruction's index when an
+ * instruction reads it, so such reads are folded into immediates as the program is compiled, and
+ * only instructions that write to it (jumps) need to touch it at run time.
+ */
+public class CompiledProgram {
+
+  // Must match the declaration order of Day16.Op; EQRR (15) is the switch's default
+  private static final int ADDR = 0;
+  private static final int ADDI = 1;
+  private static final int MULR = 2;
+  private static final int MULI = 3;
+  private static final int BANR = 4;
+  private static final int BANI = 5;
+  private static final int BORR = 6;
+  private static final int BORI = 7;
+  private static final int SETR = 8;
+  private static final int SETI = 9;
+  private static final int GTIR = 10;
+  private static final int GTRI = 11;
+  private static final int GTRR = 12;
+  private static final int EQIR = 13;
+  private static final int EQRI = 14;
+
+  /* Set on instructions that write to the instruction pointer register */
+  private static final int JUMP = 1 << 4;
+  private static final int OP_MASK = JUMP - 1;
+
+  private static final int NO_REGISTER = -1;
+
+  private final int instructionPointerRegister;
+  private int[] code;
+  private int size = 0;
+
+  /** Creates a program whose instructions run in order. */
+  public CompiledProgram() {
+    this(NO_REGISTER);
+  }
+
+  /** Creates a program whose instruction pointer is bound to the given register. */
+  public CompiledProgram(int instructionPointerRegister) {
+    this.instructionPointerRegister = instructionPointerRegister;
+    code = new int[4 * 16];
+  }
+
+  public void add(Day16.Op op, int a, int b, int c) {
+    if (4 * size == code.length) {
+      code = Arrays.copyOf(code, 2 * code.length);
+    }
+
+    int jump = 0;
+    if (instructionPointerRegister != NO_REGISTER) {
+      boolean aIsPointer = op.typeA == InputType.REGISTER && a == instructionPointerRegister;
+      boolean bIsPointer = op.typeB == InputType.REGISTER && b == instructionPointerRegister;
+      InputType typeA = aIsPointer ? InputType.IMMEDIATE : op.typeA;
+      InputType typeB = bIsPointer ? InputType.IMMEDIATE : op.typeB;
+      a = aIsPointer ? size : a;
+      b = bIsPointer ? size : b;
+
+      if (typeA == InputType.IMMEDIATE && typeB == InputType.IMMEDIATE) {
+        a = op.function.perform(a, b);
+        op = Day16.Op.SETI;
+      } else if (aIsPointer || bIsPointer) {
+        Day16.Op specialized = op.withInputTypes(typeA, typeB);
+        if (specialized == null) {
+          // Only add, mul, ban and bor lack an immediate-register form, and they commute
+          specialized = op.withInputTypes(typeB, typeA);
+          int swap = a;
+          a = b;
+          b = swap;
+        }
+        op = specialized;
+      }
+
+      if (c == instructionPointerRegister) {
+        jump = JUMP;
+      }
+    }
+
+    int offset = 4 * size++;
+    code[offset] = op.ordinal() | jump;
+    code[offset + 1] = a;
+    code[offset + 2] = b;
+    code[offset + 3] = c;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Runs the program on {@code registers} until the instruction pointer leaves it, and returns the
+   * number of instructions executed.
+   */
+  public long run(int[] registers) {
+    // The switch is written out here rather than in a helper, which would be too big to inline
+    int[] code = this.code;
+    int size = this.size;
+    int ipRegister = instructionPointerRegister;
+
+    long executed = 0;
+    int ip;
+    for (ip = 0; ip >= 0 && ip < size; ip++) {
+      int offset = 4 * ip;
+      int op = code[offset];
+      int a = code[offset + 1];
+      int b = code[offset + 2];
+      int c = code[offset + 3];
+      switch (op & OP_MASK) {
+        case ADDR:
+          registers[c] = registers[a] + registers[b];
+          break;
+        case ADDI:
+          registers[c] = registers[a] + b;
+          break;
+        case MULR:
+          registers[c] = registers[a] * registers[b];
+          break;
+        case MULI:
+          registers[c] = registers[a] * b;
+          break;
+        case BANR:
+          registers[c] = registers[a] & registers[b];
+          break;
+        case BANI:
+          registers[c] = registers[a] & b;
+          break;
+        case BORR:
+          registers[c] = registers[a] | registers[b];
+          break;
+        case BORI:
+          registers[c] = registers[a] | b;
+          break;
+        case SETR:
+          registers[c] = registers[a];
+          break;
+        case SETI:
+          registers[c] = a;
+          break;
+        case GTIR:
+          registers[c] = (a > registers[b]) ? 1 : 0;
+          break;
+        case GTRI:
+          registers[c] = (registers[a] > b) ? 1 : 0;
+          break;
+        case GTRR:
+          registers[c] = (registers[a] > registers[b]) ? 1 : 0;
+          break;
+        case EQIR:
+          registers[c] = (a == registers[b]) ? 1 : 0;
+          break;
+        case EQRI:
+          registers[c] = (registers[a] == b) ? 1 : 0;
+          break;
+        default: // case EQRR:
+          registers[c] = (registers[a] == registers[b]) ? 1 : 0;
+          break;
+      }
+
+      if (op >= JUMP) {
+        ip = registers[ipRegister];
+      }
+      executed++;
+    }
+
+    // Leave the pointer register as an interpreter would have: holding the last instruction's index
+    if (ipRegister != NO_REGISTER && executed > 0) {
+      registers[ipRegister] = ip - 1;
+    }
+    return executed;
+  }
+}
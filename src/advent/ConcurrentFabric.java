@@ -0,0 +1,185 @@
+package advent;
+
+import advent.Day03.Claim;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A fabric that many threads can add {@link Claim}s to at once, tracking both the overlapping area
+ * (day 3, part one) and the claims that overlap no other (part two).
+ *
+ * <p>The fabric is split into square tiles, allocated on first use, each an {@link
+ * AtomicIntegerArray} holding one of {@link #EMPTY}, the ID of the one claim covering a cell, or
+ * {@link #OVERLAPPED}. Adding a claim compare-and-sets each of its cells forward through those
+ * states, so producers only ever contend on cells they both claim.
+ *
+ * <p>So that {@link #snapshot()} sees every claim either fully added or not at all, producers hold
+ * the read side of one of several lock stripes (picked by thread) while adding, and a snapshot
+ * takes the write side of all of them. Producers therefore never wait on each other, only on
+ * snapshots.
+ */
+public class ConcurrentFabric {
+
+  /** Overlap count and non-overlapping claims, as of a moment when no claim was half added. */
+  public static class Snapshot {
+    public final long overlapCount;
+    public final int[] nonOverlappingIds;
+
+    public Snapshot(long overlapCount, int[] nonOverlappingIds) {
+      this.overlapCount = overlapCount;
+      this.nonOverlappingIds = nonOverlappingIds;
+    }
+  }
+
+  private static final int EMPTY = 0;
+  private static final int OVERLAPPED = -1;
+
+  private static final int TILE_BITS = 6;
+  private static final int TILE_SIZE = 1 << TILE_BITS;
+  private static final int TILE_MASK = TILE_SIZE - 1;
+
+  private static final int STRIPES = 16;
+
+  private final int width;
+  private final int height;
+  private final int maxClaimId;
+  private final int tileColumns;
+  private final AtomicReferenceArray<AtomicIntegerArray> tiles;
+
+  /* Bit i of each is set once claim i has been added, and once it is found to overlap */
+  private final AtomicLongArray added;
+  private final AtomicLongArray overlapping;
+
+  private final LongAdder overlapCount = new LongAdder();
+  private final ReentrantReadWriteLock[] stripes = new ReentrantReadWriteLock[STRIPES];
+
+  /** Creates a fabric for claims within width x height, with IDs from 1 to maxClaimId. */
+  public ConcurrentFabric(int width, int height, int maxClaimId) {
+    this.width = width;
+    this.height = height;
+    this.maxClaimId = maxClaimId;
+    tileColumns = (width + TILE_MASK) >>> TILE_BITS;
+    int tileRows = (height + TILE_MASK) >>> TILE_BITS;
+    tiles = new AtomicReferenceArray<>(tileColumns * tileRows);
+
+    added = new AtomicLongArray((maxClaimId >>> 6) + 1);
+    overlapping = new AtomicLongArray((maxClaimId >>> 6) + 1);
+    for (int i = 0; i < STRIPES; i++) {
+      stripes[i] = new ReentrantReadWriteLock();
+    }
+  }
+
+  /** Adds {@code claim}, which must not have been added before. Safe to call from any thread. */
+  public void add(Claim claim) {
+    if (claim.id < 1 || claim.id > maxClaimId) {
+      throw new IllegalArgumentException("Claim ID out of range: " + claim.id);
+    }
+    if (claim.xStart < 0 || claim.yStart < 0 || claim.xEnd > width || claim.yEnd > height) {
+      throw new IllegalArgumentException("Claim " + claim.id + " lies outside the fabric");
+    }
+
+    ReentrantReadWriteLock.ReadLock lock =
+        stripes[(int) (Thread.currentThread().getId() % STRIPES)].readLock();
+    lock.lock();
+    try {
+      setBit(added, claim.id);
+      if (claim.xStart >= claim.xEnd || claim.yStart >= claim.yEnd) {
+        return; // Covers nothing, so overlaps nothing
+      }
+
+      boolean overlaps = false;
+      for (int tileY = claim.yStart >>> TILE_BITS;
+          tileY <= (claim.yEnd - 1) >>> TILE_BITS;
+          tileY++) {
+        for (int tileX = claim.xStart >>> TILE_BITS;
+            tileX <= (claim.xEnd - 1) >>> TILE_BITS;
+            tileX++) {
+          overlaps |= addToTile(claim, tileX, tileY);
+        }
+      }
+      if (overlaps) {
+        setBit(overlapping, claim.id);
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Returns the overlap count and non-overlapping claim IDs, consistent with each other. */
+  public Snapshot snapshot() {
+    for (ReentrantReadWriteLock stripe : stripes) {
+      stripe.writeLock().lock();
+    }
+    try {
+      int[] ids = new int[maxClaimId];
+      int count = 0;
+      for (int word = 0; word < added.length(); word++) {
+        long bits = added.get(word) & ~overlapping.get(word);
+        while (bits != 0) {
+          ids[count++] = (word << 6) + Long.numberOfTrailingZeros(bits);
+          bits &= bits - 1;
+        }
+      }
+      return new Snapshot(overlapCount.sum(), Arrays.copyOf(ids, count));
+    } finally {
+      for (int i = STRIPES - 1; i >= 0; i--) {
+        stripes[i].writeLock().unlock();
+      }
+    }
+  }
+
+  /** Adds the part of {@code claim} within a tile, and returns true if it overlaps another. */
+  private boolean addToTile(Claim claim, int tileX, int tileY) {
+    AtomicIntegerArray tile = getOrCreateTile(tileY * tileColumns + tileX);
+    int xStart = Math.max(claim.xStart, tileX << TILE_BITS) & TILE_MASK;
+    int xEnd = ((Math.min(claim.xEnd, (tileX + 1) << TILE_BITS) - 1) & TILE_MASK) + 1;
+    int yStart = Math.max(claim.yStart, tileY << TILE_BITS) & TILE_MASK;
+    int yEnd = ((Math.min(claim.yEnd, (tileY + 1) << TILE_BITS) - 1) & TILE_MASK) + 1;
+
+    boolean overlaps = false;
+    for (int y = yStart; y < yEnd; y++) {
+      for (int i = (y << TILE_BITS) + xStart; i < (y << TILE_BITS) + xEnd; i++) {
+        while (true) {
+          int owner = tile.get(i);
+          if (owner == OVERLAPPED) {
+            overlaps = true;
+            break;
+          }
+          if (tile.compareAndSet(i, owner, (owner == EMPTY) ? claim.id : OVERLAPPED)) {
+            if (owner != EMPTY) {
+              // This claim makes the cell overlapped, so counts it, and disqualifies its owner
+              setBit(overlapping, owner);
+              overlapCount.increment();
+              overlaps = true;
+            }
+            break;
+          }
+        }
+      }
+    }
+    return overlaps;
+  }
+
+  private AtomicIntegerArray getOrCreateTile(int index) {
+    AtomicIntegerArray tile = tiles.get(index);
+    if (tile == null) {
+      tiles.compareAndSet(index, null, new AtomicIntegerArray(TILE_SIZE * TILE_SIZE));
+      tile = tiles.get(index);
+    }
+    return tile;
+  }
+
+  private static void setBit(AtomicLongArray bits, int index) {
+    int word = index >>> 6;
+    long mask = 1L << index;
+    long current;
+    while (((current = bits.get(word)) & mask) == 0
+        && !bits.compareAndSet(word, current, current | mask)) {
+      // Retry until the bit is set, by this thread or another
+    }
+  }
+}
@@ -2,32 +2,108 @@ package advent;
 
 import java.io.IOException;
 import java.util.Arrays;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
 
-public class Day01 {
+public class Day01 implements Solver<int[]> {
   public static void main(String[] args) throws IOException {
-    List<Integer> frequencyChanges =
-        Arrays.stream(FileUtility.fileToString("input/01.txt").split("\n"))
-            .map(Integer::parseInt)
-            .collect(Collectors.toList());
+    Solvers.solveAndOutput("01", new Day01());
+  }
+
+  @Override
+  public int[] parse(String filepath) throws IOException {
+    return ParseUtility.extractInts(LineSource.map(filepath));
+  }
 
-    // Part one
-    FileUtility.printAndOutput(
-        frequencyChanges.stream().mapToInt(Integer::intValue).sum(), "output/01a.txt");
+  @Override
+  public Object partOne(int[] frequencyChanges) {
+    return Arrays.stream(frequencyChanges).sum();
+  }
 
-    // Part two
-    Set<Integer> pastFrequencies = new HashSet<>(frequencyChanges.size());
+  @Override
+  public Object partTwo(int[] frequencyChanges) {
+    return findFirstRepeatedFrequencyAnalytically(frequencyChanges);
+  }
+
+  /** Simulates pass after pass until a frequency repeats. */
+  static int findFirstRepeatedFrequency(int[] frequencyChanges) {
+    IntHashSet pastFrequencies = new IntHashSet(frequencyChanges.length);
     int currentFrequency = 0;
     int index = 0;
     do {
       pastFrequencies.add(currentFrequency);
-      currentFrequency += frequencyChanges.get(index);
-      index = (index + 1) % frequencyChanges.size();
+      currentFrequency += frequencyChanges[index];
+      index = (index + 1) % frequencyChanges.length;
     } while (!pastFrequencies.contains(currentFrequency));
 
-    FileUtility.printAndOutput(currentFrequency, "output/01b.txt");
+    return currentFrequency;
+  }
+
+  /**
+   * Finds the same frequency as {@link #findFirstRepeatedFrequency(int[])} in O(n log n), from the
+   * first pass alone, and throws {@link IllegalArgumentException} if no frequency ever repeats.
+   *
+   * <p>If the first pass (including the frequency it ends on) has no repeat, then it visits n
+   * distinct frequencies s_i, and pass k visits s_i + k * drift at time k * n + i. A later pass
+   * can only revisit s_j from some s_i with s_j - s_i a positive multiple of the drift (negative,
+   * if the drift is), i.e. from the same residue class modulo the drift. Within each class, sorted
+   * in the direction of the drift, each frequency's nearest neighbour is the first it reaches, so
+   * the answer is the neighbouring pair reached at the earliest time. If every class has a single
+   * frequency, nothing is ever revisited.
+   */
+  static int findFirstRepeatedFrequencyAnalytically(int[] frequencyChanges) {
+    int n = frequencyChanges.length;
+    int[] frequencies = new int[n];
+    IntHashSet pastFrequencies = new IntHashSet(n);
+    int currentFrequency = 0;
+    for (int i = 0; i < n; i++) {
+      frequencies[i] = currentFrequency;
+      pastFrequencies.add(currentFrequency);
+      currentFrequency += frequencyChanges[i];
+      if (pastFrequencies.contains(currentFrequency)) {
+        return currentFrequency;
+      }
+    }
+
+    // With no repeat in the first pass, the drift can't be zero (the pass would end back on 0)
+    int drift = currentFrequency;
+    long step = Math.abs((long) drift);
+    int direction = Integer.signum(drift);
+
+    // Sort by position in the direction of the drift, then (stably) by residue, so that each
+    // class ends up contiguous and in the order its frequencies are reached. Both sorts are of
+    // packed longs, with the index in the low 32 bits.
+    long[] order = new long[n];
+    for (int i = 0; i < n; i++) {
+      order[i] = ((long) direction * frequencies[i] << 32) | i;
+    }
+    Arrays.sort(order);
+    int[] indexByRank = new int[n];
+    for (int rank = 0; rank < n; rank++) {
+      int i = (int) order[rank];
+      indexByRank[rank] = i;
+      long residue = Math.floorMod((long) direction * frequencies[i], step);
+      order[rank] = (residue << 32) | rank;
+    }
+    Arrays.sort(order);
+
+    long bestTime = Long.MAX_VALUE;
+    int repeated = 0;
+    for (int k = 0; k + 1 < n; k++) {
+      if (order[k] >>> 32 != order[k + 1] >>> 32) {
+        continue; // Different residue classes
+      }
+
+      int from = indexByRank[(int) order[k]];
+      int to = indexByRank[(int) order[k + 1]];
+      long passes = ((long) frequencies[to] - frequencies[from]) / drift;
+      long time = passes * n + from;
+      if (time < bestTime) {
+        bestTime = time;
+        repeated = frequencies[to];
+      }
+    }
+    if (bestTime == Long.MAX_VALUE) {
+      throw new IllegalArgumentException("No frequency ever repeats");
+    }
+    return repeated;
   }
 }
@@ -1,38 +1,156 @@
 package advent;
 
 import java.io.IOException;
-import java.util.Arrays;
+import java.util.stream.IntStream;
+
+public class Day02 implements Solver<String[]> {
+  private static final int HAS_PAIR = 1;
+  private static final int HAS_TRIPLE = 2;
+
+  /* Odd multiplier for the polynomial hash of an ID; arithmetic is mod 2^64 */
+  private static final long HASH_BASE = 0x100000001B3L;
+
+  private static final long NO_PAIR = Long.MAX_VALUE;
 
-public class Day02 {
   public static void main(String[] args) throws IOException {
-    String[] boxIds = FileUtility.fileToString("input/02.txt").split("\n");
+    Solvers.solveAndOutput("02", new Day02());
+  }
+
+  @Override
+  public String[] parse(String filepath) throws IOException {
+    return FileUtility.fileToLines(filepath);
+  }
+
+  @Override
+  public Object partOne(String[] boxIds) {
+    return checksum(boxIds);
+  }
+
+  @Override
+  public Object partTwo(String[] boxIds) {
+    return findSingleDifference(boxIds);
+  }
+
+  static long checksum(String[] boxIds) {
+    int[] counts = new int[26];
+    long exactlyTwoCount = 0;
+    long exactlyThreeCount = 0;
+    for (String id : boxIds) {
+      int repeats = getRepeats(id, counts);
+      if ((repeats & HAS_PAIR) != 0) {
+        exactlyTwoCount++;
+      }
+      if ((repeats & HAS_TRIPLE) != 0) {
+        exactlyThreeCount++;
+      }
+    }
+
+    return exactlyTwoCount * exactlyThreeCount;
+  }
+
+  /**
+   * Returns HAS_PAIR and/or HAS_TRIPLE, if any letter of {@code id} (which must be lowercase)
+   * appears exactly two and/or three times. {@code counts} is scratch space, and must be all
+   * zeroes.
+   */
+  static int getRepeats(String id, int[] counts) {
+    for (int i = 0; i < id.length(); i++) {
+      counts[id.charAt(i) - 'a']++;
+    }
+
+    int repeats = 0;
+    for (int i = 0; i < id.length(); i++) {
+      int letter = id.charAt(i) - 'a';
+      if (counts[letter] == 2) {
+        repeats |= HAS_PAIR;
+      } else if (counts[letter] == 3) {
+        repeats |= HAS_TRIPLE;
+      }
+      counts[letter] = 0; // Leave the scratch space clean for the next ID
+    }
+    return repeats;
+  }
+
+  /**
+   * Finds the first pair of strings in the array (by the index of the first string, then of the
+   * second) that differ in exactly one position. Returns the common characters left in both strings
+   * after removing the differing character. Strings must all have the same length.
+   *
+   * <p>Two strings differ only at position p exactly when they are equal with p masked out, so for
+   * each position (in parallel), the strings are hashed with that position masked, and only strings
+   * whose masked hashes collide are compared. That takes O(n * L) expected time, rather than the
+   * O(n^2 * L) of comparing every pair.
+   */
+  static String findSingleDifference(String[] strings) {
+    if (strings.length < 2) {
+      return "";
+    }
 
-    // Part one
-    long exactlyTwoCount = Arrays.stream(boxIds).filter(id -> hasExactLetterCount(id, 2)).count();
-    long exactlyThreeCount = Arrays.stream(boxIds).filter(id -> hasExactLetterCount(id, 3)).count();
+    int length = strings[0].length();
+    long[] powers = new long[length];
+    long power = 1;
+    for (int i = length - 1; i >= 0; i--) {
+      powers[i] = power;
+      power *= HASH_BASE;
+    }
 
-    FileUtility.printAndOutput(exactlyTwoCount * exactlyThreeCount, "output/02a.txt");
+    long[] hashes = new long[strings.length];
+    for (int i = 0; i < strings.length; i++) {
+      long hash = 0;
+      for (int j = 0; j < length; j++) {
+        hash = hash * HASH_BASE + strings[i].charAt(j);
+      }
+      hashes[i] = hash;
+    }
 
-    // Part two
-    FileUtility.printAndOutput(findSingleDifference(boxIds), "output/02b.txt");
+    long pair =
+        IntStream.range(0, length)
+            .parallel()
+            .mapToLong(position -> findPairDifferingAt(strings, hashes, powers, position))
+            .min()
+            .getAsLong();
+    if (pair == NO_PAIR) {
+      return "";
+    }
+
+    int first = (int) (pair >>> 32);
+    int position = indexOfSingleDifference(strings[first], strings[(int) pair]);
+    return new StringBuilder(strings[first]).deleteCharAt(position).toString();
   }
 
-  private static boolean hasExactLetterCount(String s, int desiredCount) {
-    char[] letters = s.toCharArray();
-    Arrays.sort(letters);
-
-    int currentCount = 1;
-    for (int i = 1; i < letters.length - 1; i++) {
-      if (letters[i] == letters[i - 1]) {
-        currentCount++;
-      } else if (currentCount == desiredCount) {
-        return true;
-      } else {
-        currentCount = 1;
+  /**
+   * Returns the first pair of strings that differ only at {@code position}, packed as (first index
+   * << 32 | second index), or NO_PAIR.
+   */
+  private static long findPairDifferingAt(
+      String[] strings, long[] hashes, long[] powers, int position) {
+    // Open addressing, holding index + 1 (0 is free) and keyed by masked hash. Every string is
+    // inserted, so that a true match is still found behind a colliding hash.
+    int capacity = Integer.highestOneBit(Math.max(strings.length, 8)) << 2;
+    int mask = capacity - 1;
+    long[] keys = new long[capacity];
+    int[] indices = new int[capacity];
+
+    long best = NO_PAIR;
+    for (int j = 0; j < strings.length; j++) {
+      long masked = hashes[j] - strings[j].charAt(position) * powers[position];
+
+      int slot = (int) (mix(masked) & mask);
+      for (; indices[slot] != 0; slot = (slot + 1) & mask) {
+        int i = indices[slot] - 1;
+        if (keys[slot] == masked && indexOfSingleDifference(strings[i], strings[j]) == position) {
+          best = Math.min(best, ((long) i << 32) | j);
+        }
       }
+      keys[slot] = masked;
+      indices[slot] = j + 1;
     }
+    return best;
+  }
 
-    return currentCount == desiredCount;
+  private static long mix(long value) {
+    value = (value ^ (value >>> 33)) * 0xFF51AFD7ED558CCDL;
+    return value ^ (value >>> 33);
   }
 
   /**
@@ -56,24 +174,4 @@ public class Day02 {
 
     return indexOfDifference;
   }
-
-  /**
-   * Finds the first pair of strings in the array that differ in exactly one position. Returns the
-   * common characters left in both strings after removing the differing character.
-   */
-  private static String findSingleDifference(String[] strings) {
-    for (int i = 0; i < strings.length; i++) {
-      for (int j = i + 1; j < strings.length; j++) {
-        if (i != j) {
-          int index = indexOfSingleDifference(strings[i], strings[j]);
-
-          if (index >= 0) {
-            return new StringBuilder(strings[i]).deleteCharAt(index).toString();
-          }
-        }
-      }
-    }
-
-    return "";
-  }
 }
@@ -2,15 +2,16 @@ package advent;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
-public class Day03 {
+public class Day03 implements Solver<Day03.Fabric> {
 
-  private static class Claim {
+  static class Claim {
     public final int id;
 
     // Inclusive
@@ -21,38 +22,65 @@ public class Day03 {
     public final int xEnd;
     public final int yEnd;
 
-    public Claim(String claim) {
-      List<Integer> args = ParseUtility.extractIntegers(claim);
-      id = args.get(0);
-      xStart = args.get(1);
-      yStart = args.get(2);
-      xEnd = xStart + args.get(3);
-      yEnd = yStart + args.get(4);
+    /** Expects {id, xStart, yStart, width, height}, as parsed from "#id @ x,y: wxh". */
+    public Claim(int[] args) {
+      id = args[0];
+      xStart = args[1];
+      yStart = args[2];
+      xEnd = xStart + args[3];
+      yEnd = yStart + args[4];
+    }
+  }
+
+  static class Fabric {
+    public final List<Claim> claims;
+    public final int width;
+    public final int height;
+
+    public Fabric(List<Claim> claims, int width, int height) {
+      this.claims = claims;
+      this.width = width;
+      this.height = height;
     }
   }
 
   public static void main(String[] args) throws IOException {
-    String[] claimsSpecs = FileUtility.fileToString("input/03.txt").split("\n");
+    Solvers.solveAndOutput("03", new Day03());
+  }
 
+  @Override
+  public Fabric parse(String filepath) throws IOException {
     int[] fabricDimensions = new int[2];
-    List<Claim> claims = getClaims(claimsSpecs, fabricDimensions);
-
-    int fabricWidth = fabricDimensions[0];
-    int fabricHeight = fabricDimensions[1];
+    List<Claim> claims = getClaims(LineSource.map(filepath), fabricDimensions);
+    return new Fabric(claims, fabricDimensions[0], fabricDimensions[1]);
+  }
 
-    // Part one
-    FileUtility.printAndOutput(countOverlaps(claims, fabricWidth, fabricHeight), "output/03a.txt");
+  @Override
+  public Object partOne(Fabric fabric) {
+    return countOverlaps(fabric.claims, fabric.width, fabric.height);
+  }
 
-    // Part two
-    FileUtility.printAndOutput(
-        findNonOverlappingIds(claims, fabricWidth, fabricHeight).iterator().next(),
-        "output/03b.txt");
+  @Override
+  public Object partTwo(Fabric fabric) {
+    int[] nonOverlappingIds = findNonOverlappingIds(fabric.claims);
+    if (nonOverlappingIds.length == 0) {
+      throw new IllegalArgumentException("Every claim overlaps another");
+    }
+    return nonOverlappingIds[0];
   }
 
-  private static List<Claim> getClaims(String[] claimsSpecs, int[] fabricDimensions) {
-    List<Claim> claims = new ArrayList<>(claimsSpecs.length);
-    for (String claimSpec : claimsSpecs) {
-      Claim claim = new Claim(claimSpec);
+  static List<Claim> getClaims(LineSource claimsSpecs, int[] fabricDimensions) {
+    List<Claim> claims = new ArrayList<>();
+    int[] args = new int[5];
+    for (ByteSlice claimSpec : claimsSpecs) {
+      int count = ParseUtility.extractInts(claimSpec, args);
+      if (count == 0) {
+        continue;
+      }
+      if (count < args.length) {
+        throw new IllegalArgumentException("Malformed claim: " + claimSpec);
+      }
+      Claim claim = new Claim(args);
       claims.add(claim);
 
       if (claim.xEnd > fabricDimensions[0]) {
@@ -66,18 +94,43 @@ public class Day03 {
     return claims;
   }
 
-  private static int countOverlaps(List<Claim> claims, int fabricWidth, int fabricHeight) {
-    // Grid that counts # of overlaps at a give position
-    int[][] overlaps = new int[fabricWidth][fabricHeight];
-    int overlapCount = 0;
+  /** Largest fabric (in square inches) that is worth materializing as a difference array. */
+  private static final long MAX_DIFFERENCE_ARRAY_AREA = 1 << 24;
+
+  /** Returns the number of square inches within two or more claims. */
+  static long countOverlaps(List<Claim> claims, int fabricWidth, int fabricHeight) {
+    if ((long) fabricWidth * fabricHeight <= MAX_DIFFERENCE_ARRAY_AREA) {
+      return countOverlapsWithDifferenceArray(claims, fabricWidth, fabricHeight);
+    }
+    return countOverlapsBySweep(claims);
+  }
 
+  /**
+   * Adds each claim in O(1), as +1/-1 at its four corners of a 2D difference array, whose prefix
+   * sums are then the number of claims covering each square inch. Cost is O(claims + fabric area),
+   * independent of how much area the claims cover.
+   */
+  static long countOverlapsWithDifferenceArray(
+      List<Claim> claims, int fabricWidth, int fabricHeight) {
+    int rowLength = fabricWidth + 1;
+    int[] coverage = new int[rowLength * (fabricHeight + 1)];
     for (Claim claim : claims) {
-      for (int x = claim.xStart; x < claim.xEnd; x++) {
-        for (int y = claim.yStart; y < claim.yEnd; y++) {
-          overlaps[x][y]++;
-          if (overlaps[x][y] == 2) {
-            overlapCount++;
-          }
+      coverage[claim.yStart * rowLength + claim.xStart]++;
+      coverage[claim.yStart * rowLength + claim.xEnd]--;
+      coverage[claim.yEnd * rowLength + claim.xStart]--;
+      coverage[claim.yEnd * rowLength + claim.xEnd]++;
+    }
+
+    // Prefix sums along each row, then down each column (adding the finished row above)
+    long overlapCount = 0;
+    for (int y = 0; y < fabricHeight; y++) {
+      int row = y * rowLength;
+      int sum = 0;
+      for (int x = 0; x < fabricWidth; x++) {
+        sum += coverage[row + x];
+        coverage[row + x] = (y > 0) ? sum + coverage[row - rowLength + x] : sum;
+        if (coverage[row + x] >= 2) {
+          overlapCount++;
         }
       }
     }
@@ -85,27 +138,159 @@ public class Day03 {
     return overlapCount;
   }
 
-  private static Set<Integer> findNonOverlappingIds(
-      List<Claim> claims, int fabricWidth, int fabricHeight) {
-    Set<Integer> nonOverlappingIds =
-        IntStream.rangeClosed(1, claims.size()).boxed().collect(Collectors.toSet());
+  /**
+   * Sweeps a vertical line across the claims' left and right edges, keeping the covered length of
+   * the line in a segment tree over the distinct y coordinates. Cost is O(claims * log(claims)),
+   * regardless of the fabric's size, so it also works on fabrics too large to materialize.
+   */
+  static long countOverlapsBySweep(List<Claim> claims) {
+    int[] ys = new int[2 * claims.size()];
+    for (int i = 0; i < claims.size(); i++) {
+      ys[2 * i] = claims.get(i).yStart;
+      ys[2 * i + 1] = claims.get(i).yEnd;
+    }
+    Arrays.sort(ys);
+    int distinct = 0;
+    for (int y : ys) {
+      if (distinct == 0 || ys[distinct - 1] != y) {
+        ys[distinct++] = y;
+      }
+    }
+    ys = Arrays.copyOf(ys, distinct);
+
+    // (x << 32 | claim index << 1 | 1 if leaving), so that sorting orders events by x
+    long[] events = new long[2 * claims.size()];
+    for (int i = 0; i < claims.size(); i++) {
+      Claim claim = claims.get(i);
+      events[2 * i] = ((long) claim.xStart << 32) | ((long) i << 1);
+      events[2 * i + 1] = ((long) claim.xEnd << 32) | ((long) i << 1) | 1;
+    }
+    Arrays.sort(events);
+
+    CoverageTree tree = new CoverageTree(ys);
+    long overlapArea = 0;
+    for (int e = 0; e < events.length; e++) {
+      Claim claim = claims.get((int) (events[e] & 0xFFFFFFFFL) >>> 1);
+      int delta = ((events[e] & 1) == 0) ? 1 : -1;
+      tree.add(
+          Arrays.binarySearch(ys, claim.yStart), Arrays.binarySearch(ys, claim.yEnd), delta);
+
+      if (e + 1 < events.length) {
+        long width = (events[e + 1] >> 32) - (events[e] >> 32);
+        overlapArea += width * tree.getDoublyCoveredLength();
+      }
+    }
+
+    return overlapArea;
+  }
+
+  /**
+   * Segment tree over the gaps between sorted y coordinates, tracking how much of the sweep line
+   * is covered at least once and at least twice. As every added interval is later removed exactly,
+   * counts never need to be pushed down to children.
+   */
+  private static class CoverageTree {
+    private final int[] ys;
+    private final int[] count;
+    private final long[] coveredOnce;
+    private final long[] coveredTwice;
+
+    public CoverageTree(int[] ys) {
+      this.ys = ys;
+      int size = 4 * Math.max(ys.length, 1);
+      count = new int[size];
+      coveredOnce = new long[size];
+      coveredTwice = new long[size];
+    }
+
+    /** Adds {@code delta} to the coverage of [ys[from], ys[to]). */
+    public void add(int from, int to, int delta) {
+      add(1, 0, ys.length - 1, from, to, delta);
+    }
+
+    public long getDoublyCoveredLength() {
+      return coveredTwice[1];
+    }
+
+    /* Node covers [ys[low], ys[high]) */
+    private void add(int node, int low, int high, int from, int to, int delta) {
+      if (to <= low || high <= from) {
+        return;
+      }
+
+      if (from <= low && high <= to) {
+        count[node] += delta;
+      } else {
+        int middle = (low + high) >>> 1;
+        add(2 * node, low, middle, from, to, delta);
+        add(2 * node + 1, middle, high, from, to, delta);
+      }
+      update(node, low, high);
+    }
 
-    // Grid that tracks IDs of most recent claims
-    int[][] ids = new int[fabricWidth][fabricHeight];
+    private void update(int node, int low, int high) {
+      boolean leaf = high - low == 1;
+      long length = ys[high] - ys[low];
+      long childrenOnce = leaf ? 0 : coveredOnce[2 * node] + coveredOnce[2 * node + 1];
+      long childrenTwice = leaf ? 0 : coveredTwice[2 * node] + coveredTwice[2 * node + 1];
 
+      if (count[node] >= 2) {
+        coveredOnce[node] = length;
+        coveredTwice[node] = length;
+      } else if (count[node] == 1) {
+        coveredOnce[node] = length;
+        coveredTwice[node] = childrenOnce;
+      } else {
+        coveredOnce[node] = childrenOnce;
+        coveredTwice[node] = childrenTwice;
+      }
+    }
+  }
+
+  /** Returns the IDs of the claims that overlap no other, in the order the claims are listed. */
+  static int[] findNonOverlappingIds(List<Claim> claims) {
+    ClaimIndex index = new ClaimIndex(claims);
+    int[] ids = new int[claims.size()];
+    int count = 0;
     for (Claim claim : claims) {
-      for (int x = claim.xStart; x < claim.xEnd; x++) {
-        for (int y = claim.yStart; y < claim.yEnd; y++) {
-          // Disqualify claims that overlap
-          if (ids[x][y] != 0) {
-            nonOverlappingIds.remove(ids[x][y]);
-            nonOverlappingIds.remove(claim.id);
-          }
-          ids[x][y] = claim.id;
-        }
+      if (!index.intersectsAny(claim)) {
+        ids[count++] = claim.id;
       }
     }
+    return Arrays.copyOf(ids, count);
+  }
+
+  /**
+   * Adds {@code claims} to a new {@link ConcurrentFabric} from {@code producers} tasks at once on
+   * {@code executor}, each taking every {@code producers}-th claim.
+   */
+  static ConcurrentFabric ingestConcurrently(
+      List<Claim> claims,
+      int fabricWidth,
+      int fabricHeight,
+      ExecutorService executor,
+      int producers)
+      throws InterruptedException, ExecutionException {
+    int maxClaimId = 0;
+    for (Claim claim : claims) {
+      maxClaimId = Math.max(maxClaimId, claim.id);
+    }
+    ConcurrentFabric fabric = new ConcurrentFabric(fabricWidth, fabricHeight, maxClaimId);
 
-    return nonOverlappingIds;
+    List<Callable<Void>> tasks = new ArrayList<>(producers);
+    for (int producer = 0; producer < producers; producer++) {
+      int first = producer;
+      tasks.add(
+          () -> {
+            for (int i = first; i < claims.size(); i += producers) {
+              fabric.add(claims.get(i));
+            }
+            return null;
+          });
+    }
+    for (Future<Void> task : executor.invokeAll(tasks)) {
+      task.get();
+    }
+    return fabric;
   }
 }
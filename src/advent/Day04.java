@@ -1,12 +1,13 @@
 package advent;
 
 import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
 import java.util.*;
-import java.util.regex.Pattern;
 
-public class Day04 {
+public class Day04 implements Solver<Collection<Day04.Guard>> {
 
-  private static class Guard {
+  static class Guard {
     private final int id;
     private final int[] sleepFrequencies = new int[60];
 
@@ -24,13 +25,24 @@ public class Day04 {
 
     public void markSleep(int sleepStart, int sleepEnd) {
       for (int i = sleepStart; i < sleepEnd; i++) {
-        sleepFrequencies[i]++;
-        minutesAsleep++;
+        markMinuteAsleep(i);
+      }
+    }
 
-        if (sleepFrequencies[i] > maxFrequency) {
-          sleepiestMinute = i;
-          maxFrequency = sleepFrequencies[i];
-        }
+    /** Marks a shift's sleep, given as a bitmap in which bit i is set if minute i was asleep. */
+    public void markSleep(long sleepBitmap) {
+      for (long remaining = sleepBitmap; remaining != 0; remaining &= remaining - 1) {
+        markMinuteAsleep(Long.numberOfTrailingZeros(remaining));
+      }
+    }
+
+    private void markMinuteAsleep(int minute) {
+      sleepFrequencies[minute]++;
+      minutesAsleep++;
+
+      if (sleepFrequencies[minute] > maxFrequency) {
+        sleepiestMinute = minute;
+        maxFrequency = sleepFrequencies[minute];
       }
     }
 
@@ -51,40 +63,65 @@ public class Day04 {
     }
   }
 
-  private static final Pattern GUARD_ID_PATTERN = Pattern.compile("#(\\d+)");
-  private static final Pattern MINUTE_PATTERN = Pattern.compile("(\\d\\d)]");
+  /*
+   * Events are packed into longs that order by time: [year: 14 bits][month: 4][day: 5][hour: 5]
+   * [minute: 6][type: 2][guard ID: 24], with the guard ID only set on shift starts
+   */
+  private static final int ID_BITS = 24;
+  private static final int TYPE_SHIFT = ID_BITS;
+  private static final int MINUTE_SHIFT = TYPE_SHIFT + 2;
+  private static final int HOUR_SHIFT = MINUTE_SHIFT + 6;
+  private static final int DAY_SHIFT = HOUR_SHIFT + 5;
+  private static final int MONTH_SHIFT = DAY_SHIFT + 5;
+  private static final int YEAR_SHIFT = MONTH_SHIFT + 4;
+  private static final int EVENT_BITS = YEAR_SHIFT + 14;
+
+  static final int BEGINS_SHIFT = 0;
+  static final int FALLS_ASLEEP = 1;
+  static final int WAKES_UP = 2;
+
+  private static final int RADIX_BITS = 8;
 
   public static void main(String[] args) throws IOException {
-    String[] events = FileUtility.fileToString("input/04.txt").split("\n");
-    Arrays.sort(events);
+    Solvers.solveAndOutput("04", new Day04());
+  }
 
-    Collection<Guard> guards = initializeGuards(events);
+  @Override
+  public Collection<Guard> parse(String filepath) throws IOException {
+    long[] events = parseEvents(LineSource.map(filepath));
+    sortEvents(events);
+
+    return initializeGuards(events);
+  }
 
-    // Part one
+  @Override
+  public Object partOne(Collection<Guard> guards) {
     Guard strategyOneGuard =
         guards.stream().max(Comparator.comparingInt(Guard::getMinutesAsleep)).get();
-    FileUtility.printAndOutput(
-        strategyOneGuard.getId() * strategyOneGuard.getSleepiestMinute(), "output/04a.txt");
+    return strategyOneGuard.getId() * strategyOneGuard.getSleepiestMinute();
+  }
 
-    // Part two
+  @Override
+  public Object partTwo(Collection<Guard> guards) {
     Guard strategyTwoGuard =
         guards.stream().max(Comparator.comparingInt(Guard::getMaxFrequency)).get();
-    FileUtility.printAndOutput(
-        strategyTwoGuard.getId() * strategyTwoGuard.getSleepiestMinute(), "output/04b.txt");
+    return strategyTwoGuard.getId() * strategyTwoGuard.getSleepiestMinute();
   }
 
-  private static Collection<Guard> initializeGuards(String[] events) {
+  /** Expects events sorted by {@link #sortEvents(long[])}. */
+  static Collection<Guard> initializeGuards(long[] events) {
     Map<Integer, Guard> guards = new HashMap<>();
 
     Guard currentGuard = new Guard(-1);
     int sleepStart = -1;
-    for (String event : events) {
-      int time = ParseUtility.firstMatchInt(event, MINUTE_PATTERN);
-      if (event.contains("Guard")) {
-        currentGuard = getGuard(guards, ParseUtility.firstMatchInt(event, GUARD_ID_PATTERN));
-      } else if (event.contains("falls asleep")) {
+    for (long event : events) {
+      int time = getMinute(event);
+      int type = getType(event);
+      if (type == BEGINS_SHIFT) {
+        currentGuard = getGuard(guards, getGuardId(event));
+      } else if (type == FALLS_ASLEEP) {
         sleepStart = time;
-      } else { // if (event.contains("wakes up")) {
+      } else { // if (type == WAKES_UP) {
         currentGuard.markSleep(sleepStart, time);
       }
     }
@@ -92,7 +129,170 @@ public class Day04 {
     return guards.values();
   }
 
-  private static Guard getGuard(Map<Integer, Guard> guards, int id) {
+  static int getMinute(long event) {
+    return (int) (event >>> MINUTE_SHIFT) & 63;
+  }
+
+  /** Returns one of {@link #BEGINS_SHIFT}, {@link #FALLS_ASLEEP} or {@link #WAKES_UP}. */
+  static int getType(long event) {
+    return (int) (event >>> TYPE_SHIFT) & 3;
+  }
+
+  /** Returns the ID of the guard beginning a shift, or 0 for other events. */
+  static int getGuardId(long event) {
+    return (int) event & ((1 << ID_BITS) - 1);
+  }
+
+  /**
+   * Returns true if {@code event} falls in the midnight hour of the night that the shift started
+   * by {@code shiftStart} covers: the same date for shifts starting at midnight, otherwise the
+   * next (by the Gregorian calendar).
+   */
+  static boolean isDuringShift(long shiftStart, long event) {
+    if (getField(event, HOUR_SHIFT, 5) != 0) {
+      return false;
+    }
+    LocalDate night = getDate(shiftStart);
+    if (getField(shiftStart, HOUR_SHIFT, 5) != 0) {
+      night = night.plusDays(1);
+    }
+    return getDate(event).equals(night);
+  }
+
+  private static LocalDate getDate(long event) {
+    try {
+      return LocalDate.of(
+          getField(event, YEAR_SHIFT, 14),
+          getField(event, MONTH_SHIFT, 4),
+          getField(event, DAY_SHIFT, 5));
+    } catch (DateTimeException e) {
+      throw new IllegalArgumentException("Invalid date in event", e);
+    }
+  }
+
+  private static int getField(long event, int shift, int bits) {
+    return (int) (event >>> shift) & ((1 << bits) - 1);
+  }
+
+  /** Returns a key that orders events the same way as they are sorted, ignoring guard IDs. */
+  static long getTimeKey(long event) {
+    return event >>> TYPE_SHIFT;
+  }
+
+  /** Decodes every non-empty line of a guard log, in file order, into a packed event. */
+  static long[] parseEvents(LineSource log) {
+    long[] events = new long[1024];
+    int count = 0;
+    for (ByteSlice line : log) {
+      if (line.length() == 0) {
+        continue;
+      }
+      if (count == events.length) {
+        events = Arrays.copyOf(events, 2 * count);
+      }
+      events[count++] = parseEvent(line);
+    }
+    return Arrays.copyOf(events, count);
+  }
+
+  /** Decodes e.g. "[1518-11-01 00:05] falls asleep" in a single pass, without regexes. */
+  static long parseEvent(CharSequence event) {
+    if (event.length() < 20 || event.charAt(0) != '[' || event.charAt(17) != ']') {
+      throw new IllegalArgumentException("Malformed event: " + event);
+    }
+
+    long packed =
+        ((long) parseDigits(event, 1, 5) << YEAR_SHIFT)
+            | ((long) parseDigits(event, 6, 8) << MONTH_SHIFT)
+            | ((long) parseDigits(event, 9, 11) << DAY_SHIFT)
+            | ((long) parseDigits(event, 12, 14) << HOUR_SHIFT)
+            | ((long) parseDigits(event, 15, 17) << MINUTE_SHIFT);
+    switch (event.charAt(19)) {
+      case 'G': // Guard #10 begins shift
+        int start = 19;
+        while (start < event.length() && event.charAt(start) != '#') {
+          start++;
+        }
+        int end = start + 1;
+        while (end < event.length() && Character.isDigit(event.charAt(end))) {
+          end++;
+        }
+        int id = parseDigits(event, start + 1, end);
+        if (id >= 1 << ID_BITS) {
+          throw new IllegalArgumentException("Guard ID too large: " + event);
+        }
+        return packed | ((long) BEGINS_SHIFT << TYPE_SHIFT) | id;
+      case 'f': // falls asleep
+        return packed | ((long) FALLS_ASLEEP << TYPE_SHIFT);
+      case 'w': // wakes up
+        return packed | ((long) WAKES_UP << TYPE_SHIFT);
+      default:
+        throw new IllegalArgumentException("Unknown event: " + event);
+    }
+  }
+
+  private static int parseDigits(CharSequence s, int start, int end) {
+    if (start >= end) {
+      throw new IllegalArgumentException("Missing number in event: " + s);
+    }
+    int value = 0;
+    for (int i = start; i < end; i++) {
+      char c = s.charAt(i);
+      if (c < '0' || c > '9') {
+        throw new IllegalArgumentException("Malformed event: " + s);
+      }
+      value = value * 10 + (c - '0');
+    }
+    return value;
+  }
+
+  /**
+   * Sorts packed events by time with an LSD radix sort over their timestamp and type bits, one
+   * byte per pass. Passes over bytes that every event shares (e.g. the year, in most logs) are
+   * skipped.
+   */
+  static void sortEvents(long[] events) {
+    long[] buffer = new long[events.length];
+    long[] from = events;
+    long[] to = buffer;
+
+    long anyOnes = 0;
+    long anyZeros = 0;
+    for (long event : events) {
+      anyOnes |= event;
+      anyZeros |= ~event;
+    }
+    long varyingBits = anyOnes & anyZeros;
+
+    int[] offsets = new int[(1 << RADIX_BITS) + 1];
+    for (int shift = TYPE_SHIFT; shift < EVENT_BITS; shift += RADIX_BITS) {
+      int mask = (1 << Math.min(RADIX_BITS, EVENT_BITS - shift)) - 1;
+      if (((varyingBits >>> shift) & mask) == 0) {
+        continue;
+      }
+
+      Arrays.fill(offsets, 0);
+      for (long event : from) {
+        offsets[((int) (event >>> shift) & mask) + 1]++;
+      }
+      for (int digit = 0; digit < mask; digit++) {
+        offsets[digit + 1] += offsets[digit];
+      }
+      for (long event : from) {
+        to[offsets[(int) (event >>> shift) & mask]++] = event;
+      }
+
+      long[] swap = from;
+      from = to;
+      to = swap;
+    }
+
+    if (from != events) {
+      System.arraycopy(from, 0, events, 0, events.length);
+    }
+  }
+
+  static Guard getGuard(Map<Integer, Guard> guards, int id) {
     if (guards.containsKey(id)) {
       return guards.get(id);
     }
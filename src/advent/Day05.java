@@ -1,112 +1,176 @@
 package advent;
 
 import java.io.IOException;
-import java.util.HashSet;
-import java.util.Set;
-
-public class Day05 {
-  private static class Unit {
-    public final char type;
-
-    public Unit next = null;
-
-    public Unit(char type) {
-      this.type = type;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.IntStream;
+
+public class Day05 implements Solver<byte[]> {
+
+  /* Polymers at least this long are reduced in parallel */
+  private static final int PARALLEL_THRESHOLD = 1 << 22;
+
+  /* Chunks no longer than this are reduced by a single task */
+  private static final int CHUNK_SIZE = 1 << 20;
+
+  /**
+   * Reduces a chunk of a polymer to its residual, by splitting it in two, reducing both halves
+   * (the left one in another task) and merging their residuals. Reaction is associative, so
+   * residuals can be computed independently, and merging them only cancels units across the
+   * boundary between them.
+   */
+  private static class ReductionTask extends RecursiveTask<byte[]> {
+    private static final long serialVersionUID = 1L;
+
+    private final ByteBuffer polymer;
+    private final int start;
+    private final int end;
+
+    public ReductionTask(ByteBuffer polymer, int start, int end) {
+      this.polymer = polymer;
+      this.start = start;
+      this.end = end;
     }
 
-    public boolean willReact(Unit other) {
-      if (other == null) {
-        return false;
+    @Override
+    protected byte[] compute() {
+      if (end - start <= CHUNK_SIZE) {
+        byte[] chunk = new byte[end - start];
+        ByteBuffer view = polymer.duplicate();
+        view.position(start);
+        view.get(chunk);
+        // The stack never grows past the unit being read, so the chunk can be reduced in place
+        return Arrays.copyOf(chunk, reduce(chunk, 0, chunk));
       }
 
-      return type != other.type && Character.toLowerCase(type) == Character.toLowerCase(other.type);
+      int middle = (start + end) >>> 1;
+      ReductionTask left = new ReductionTask(polymer, start, middle);
+      left.fork();
+      byte[] right = new ReductionTask(polymer, middle, end).compute();
+      return merge(left.join(), right);
     }
+  }
 
-    @Override
-    public String toString() {
-      StringBuilder builder = new StringBuilder();
-      for (Unit current = this; current != null; current = current.next) {
-        builder.append(current.type);
-      }
-      return builder.toString();
-    }
+  public static void main(String[] args) throws IOException {
+    Solvers.solveAndOutput("05", new Day05());
+  }
 
-    public int getLength() {
-      int length = 0;
-      for (Unit current = this; current != null; current = current.next) {
-        length++;
-      }
-      return length;
+  @Override
+  public byte[] parse(String filepath) throws IOException {
+    byte[] polymer = Files.readAllBytes(Paths.get(filepath));
+    int length = polymer.length;
+    while (length > 0 && polymer[length - 1] <= ' ') {
+      length--;
     }
+    return Arrays.copyOf(polymer, length);
   }
 
-  public static void main(String[] args) throws IOException {
-    String polymer = FileUtility.fileToString("input/05.txt");
+  @Override
+  public Object partOne(byte[] polymer) {
+    return reduce(polymer).length;
+  }
 
-    // Part one
-    // .next to drop leading dummy unit
-    Unit polymerChain = performAllReactions(constructPolymerChain(polymer)).next;
-    FileUtility.printAndOutput(polymerChain.getLength(), "output/05a.txt");
+  @Override
+  public Object partTwo(byte[] polymer) {
+    return getShortestLengthWithOmittedType(reduce(polymer));
+  }
 
-    // Part two
-    FileUtility.printAndOutput(
-        getShortestLengthWithOmittedChar(polymer, getUniqueCharacters(polymer)), "output/05b.txt");
+  /** Two units react if they are the same letter in opposite cases. */
+  static boolean willReact(int a, int b) {
+    int lowerCase = a | 0x20;
+    return (a ^ b) == 0x20 && lowerCase >= 'a' && lowerCase <= 'z';
   }
 
-  private static int getShortestLengthWithOmittedChar(String polymer, Set<Character> charsToOmit) {
-    int shortestLength = Integer.MAX_VALUE;
-    for (Character unitType : charsToOmit) {
-      // .next to drop leading dummy unit
-      int length = performAllReactions(constructPolymerChain(polymer, unitType)).next.getLength();
-      if (length < shortestLength) {
-        shortestLength = length;
-      }
+  /** Returns the polymer left once every reaction has happened. */
+  static byte[] reduce(byte[] polymer) {
+    if (polymer.length >= PARALLEL_THRESHOLD) {
+      return reduceInParallel(ByteBuffer.wrap(polymer));
     }
-    return shortestLength;
+    byte[] stack = new byte[polymer.length];
+    return Arrays.copyOf(stack, reduce(polymer, 0, stack));
   }
 
-  private static Set<Character> getUniqueCharacters(String polymer) {
-    Set<Character> unitTypes = new HashSet<Character>();
-    for (char c : polymer.toCharArray()) {
-      unitTypes.add(Character.toLowerCase(c));
+  /**
+   * Reacts {@code polymer}, leaving out units of {@code omittedType} (a lower case letter, or 0 to
+   * keep every unit), in a single pass: each unit either reacts with the top of a stack of the
+   * units reduced so far, or is pushed onto it. Returns the reduced length, with the reduced
+   * polymer at the start of {@code stack}.
+   */
+  static int reduce(byte[] polymer, int omittedType, byte[] stack) {
+    int top = 0;
+    for (byte unit : polymer) {
+      if ((unit | 0x20) == omittedType) {
+        continue;
+      }
+      if (top > 0 && willReact(stack[top - 1], unit)) {
+        top--;
+      } else {
+        stack[top++] = unit;
+      }
     }
-    return unitTypes;
+    return top;
   }
 
-  private static Unit constructPolymerChain(String polymer) {
-    return constructPolymerChain(polymer, '\0');
+  /** Reduces the polymer in {@code polymer}'s remaining bytes on the common fork/join pool. */
+  static byte[] reduceInParallel(ByteBuffer polymer) {
+    return new ReductionTask(polymer, polymer.position(), polymer.limit()).invoke();
   }
 
-  private static Unit constructPolymerChain(String polymer, char charToIgnore) {
-    Unit polymerChain = new Unit('!');
-    Unit current = polymerChain;
-    for (int i = 0; i < polymer.length(); i++) {
-      // Only add characters that don't match the "to ignore" char
-      if (Character.toLowerCase(polymer.charAt(i)) != charToIgnore) {
-        current.next = new Unit(polymer.charAt(i));
-        current = current.next;
+  /**
+   * Reduces a (typically huge) memory-mapped polymer file on all cores, without first reading it
+   * onto the heap. As with {@link #parse(String)}, trailing whitespace is not part of the polymer.
+   */
+  static byte[] reduceInParallel(LineSource polymer) {
+    List<ByteBuffer> regions = polymer.regions();
+    byte[] reduced = new byte[0];
+    for (int i = 0; i < regions.size(); i++) {
+      ByteBuffer region = regions.get(i);
+      if (i == regions.size() - 1) {
+        int end = region.limit();
+        while (end > 0 && region.get(end - 1) <= ' ') {
+          end--;
+        }
+        region.limit(end);
       }
+      reduced = merge(reduced, reduceInParallel(region));
     }
-    return polymerChain;
+    return reduced;
   }
 
-  // O(n^2): Runs slightly slow on part two
-  private static Unit performAllReactions(Unit polymerChain) {
-    Unit current;
-    boolean reactionOccurred;
-    do {
-      reactionOccurred = false;
-      current = polymerChain;
-      while (current.next != null && current.next.next != null) {
-        if (current.next.willReact(current.next.next)) {
-          current.next = current.next.next.next;
-          reactionOccurred = true;
-        } else {
-          current = current.next;
-        }
-      }
-    } while (reactionOccurred);
+  /** Concatenates two reduced polymers, reacting away the units that meet at the boundary. */
+  static byte[] merge(byte[] left, byte[] right) {
+    int reacted = 0;
+    while (reacted < left.length
+        && reacted < right.length
+        && willReact(left[left.length - 1 - reacted], right[reacted])) {
+      reacted++;
+    }
+
+    byte[] merged = new byte[left.length + right.length - 2 * reacted];
+    System.arraycopy(left, 0, merged, 0, left.length - reacted);
+    System.arraycopy(right, reacted, merged, left.length - reacted, right.length - reacted);
+    return merged;
+  }
+
+  /**
+   * Tries leaving out each unit type, in parallel, and returns the shortest length reached. Since
+   * leaving out a type and reacting commute, {@code polymer} may (and had best) be reduced already.
+   */
+  static int getShortestLengthWithOmittedType(byte[] polymer) {
+    boolean[] present = new boolean[128];
+    for (byte unit : polymer) {
+      present[(unit | 0x20) & 0x7F] = true;
+    }
 
-    return polymerChain;
+    return IntStream.rangeClosed('a', 'z')
+        .filter(type -> present[type])
+        .parallel()
+        .map(type -> reduce(polymer, type, new byte[polymer.length]))
+        .min()
+        .orElse(polymer.length);
   }
 }
@@ -4,18 +4,18 @@ import java.io.IOException;
 import java.util.*;
 import java.util.stream.Collectors;
 
-public class Day06 {
+public class Day06 implements Solver<List<Day06.Point>> {
 
   private static final int TOTAL_DISTANCE_CUTOFF = 10000;
 
-  private static class Point {
+  static class Point {
     public final int x;
     public final int y;
 
-    public Point(String s) {
-      List<Integer> args = ParseUtility.extractIntegers(s);
-      x = args.get(0);
-      y = args.get(1);
+    public Point(CharSequence s) {
+      int[] args = ParseUtility.extractInts(s);
+      x = args[0];
+      y = args[1];
     }
 
     public Point(int x, int y) {
@@ -45,112 +45,157 @@ public class Day06 {
   }
 
   public static void main(String[] args) throws IOException {
-    List<Point> allPoints =
-        Arrays.stream(FileUtility.fileToString("input/06.txt").split("\n"))
-            .map(Point::new)
-            .collect(Collectors.toList());
-
-    // Part one
-    FileUtility.printAndOutput(getLargestFiniteArea(allPoints), "output/06a.txt");
-
-    // Part two
-    Point average =
-        new Point(
-            allPoints.stream().mapToInt(p -> p.x).sum() / allPoints.size(),
-            allPoints.stream().mapToInt(p -> p.x).sum() / allPoints.size());
-    FileUtility.printAndOutput(
-        getAreaUnderTotalDistanceCutoff(allPoints, average, TOTAL_DISTANCE_CUTOFF),
-        "output/06b.txt");
+    Solvers.solveAndOutput("06", new Day06());
   }
 
-  private static int getLargestFiniteArea(List<Point> allPoints) {
-    Set<Point> finiteAreaPoints = new HashSet<>(allPoints.size());
-    for (Point point : allPoints) {
-      if (!isCloseToInfinitelyManySpaces(allPoints, point)) {
-        finiteAreaPoints.add(point);
-      }
-    }
+  @Override
+  public List<Point> parse(String filepath) throws IOException {
+    return LineSource.map(filepath).lines().map(Point::new).collect(Collectors.toList());
+  }
 
-    int largestFiniteArea = 0;
-    for (Point point : finiteAreaPoints) {
-      int area = getAreaClosestToPoint(allPoints, point);
-      if (area > largestFiniteArea) {
-        largestFiniteArea = area;
-      }
-    }
-    return largestFiniteArea;
+  @Override
+  public Object partOne(List<Point> allPoints) {
+    return getLargestFiniteArea(allPoints);
   }
 
-  private static int getAreaClosestToPoint(List<Point> allPoints, Point anchor) {
-    return getAreaSatisfyingCondition(
-        allPoints, anchor, (aP, current) -> isClosestToAnchor(current, anchor, aP));
+  @Override
+  public Object partTwo(List<Point> allPoints) {
+    return getAreaUnderTotalDistanceCutoff(allPoints, TOTAL_DISTANCE_CUTOFF);
   }
 
-  private static int getAreaUnderTotalDistanceCutoff(
-      List<Point> allPoints, Point start, int cutoff) {
-    return getAreaSatisfyingCondition(
-        allPoints, start, (aP, current) -> getTotalDistance(aP, current) < cutoff);
+  static int getLargestFiniteArea(List<Point> allPoints) {
+    return new VoronoiGrid(allPoints).getLargestFiniteArea();
   }
 
-  @FunctionalInterface
-  private interface PointComparisonCondition {
-    boolean isSatisfied(List<Point> allPoints, Point current);
+  /**
+   * Returns the number of cells whose total Manhattan distance to all points is under {@code
+   * cutoff}, without visiting them. The total distance is X(x) + Y(y), where X and Y sum the
+   * distances along one axis, so it suffices to list the values of X and of Y under the cutoff (in
+   * ascending order) and count the pairs summing to less than it with two pointers.
+   */
+  static long getAreaUnderTotalDistanceCutoff(List<Point> allPoints, long cutoff) {
+    long[] columnTotals =
+        new AxisDistances(allPoints.stream().mapToInt(p -> p.x).toArray()).getTotalsUnder(cutoff);
+    long[] rowTotals =
+        new AxisDistances(allPoints.stream().mapToInt(p -> p.y).toArray()).getTotalsUnder(cutoff);
+
+    long area = 0;
+    int rows = rowTotals.length;
+    for (long columnTotal : columnTotals) {
+      // Columns get further away, so fewer rows stay under the cutoff
+      while (rows > 0 && columnTotal + rowTotals[rows - 1] >= cutoff) {
+        rows--;
+      }
+      area += rows;
+    }
+    return area;
   }
 
-  private static int getAreaSatisfyingCondition(
-      List<Point> allPoints, Point start, PointComparisonCondition condition) {
-    Set<Point> visited = new HashSet<>();
-    Deque<Point> toVisit = new ArrayDeque<>();
+  /** Sums of the distances from any coordinate to a set of coordinates along one axis. */
+  static class AxisDistances {
+    private final long[] sorted;
 
-    // Iterative implementation of DFS to prevent stack overflows
-    toVisit.push(start);
-    int area = 0;
-    while (!toVisit.isEmpty()) {
-      Point current = toVisit.pop();
+    /* prefixSums[k] is the sum of the k smallest coordinates */
+    private final long[] prefixSums;
 
-      if (visited.contains(current) || !condition.isSatisfied(allPoints, current)) {
-        continue;
+    public AxisDistances(int[] coordinates) {
+      sorted = Arrays.stream(coordinates).asLongStream().sorted().toArray();
+      prefixSums = new long[sorted.length + 1];
+      for (int i = 0; i < sorted.length; i++) {
+        prefixSums[i + 1] = prefixSums[i] + sorted[i];
       }
+    }
 
-      visited.add(current);
-      area++;
-
-      toVisit.push(new Point(current.x - 1, current.y));
-      toVisit.push(new Point(current.x + 1, current.y));
-      toVisit.push(new Point(current.x, current.y - 1));
-      toVisit.push(new Point(current.x, current.y + 1));
+    /** Returns the sum of |c - coordinate| over all coordinates, in O(log n). */
+    public long getTotalDistance(long c) {
+      int below = countAtMost(c);
+      long sumBelow = prefixSums[below];
+      long sumAbove = prefixSums[sorted.length] - sumBelow;
+      return (c * below - sumBelow) + (sumAbove - c * (sorted.length - below));
     }
 
-    return area;
-  }
+    /**
+     * Returns the total distances under {@code cutoff}, in ascending order. As a sum of convex
+     * functions, the total distance falls to its minimum at the median, then rises, so the values
+     * under the cutoff come from one interval, which is found by binary search and then sorted by
+     * merging its falling and rising halves.
+     */
+    public long[] getTotalsUnder(long cutoff) {
+      long median = sorted[(sorted.length - 1) / 2];
+      if (getTotalDistance(median) >= cutoff) {
+        return new long[0];
+      }
 
-  /** Returns the sum of the Manhattan distances from each point to the specified point. */
-  private static int getTotalDistance(List<Point> allPoints, Point current) {
-    int totalDistance = 0;
-    for (Point point : allPoints) {
-      totalDistance += manhattanDistance(current, point);
-    }
-    return totalDistance;
-  }
+      // Every step further out than the (lower or upper) median adds at least 1
+      long low = median - cutoff;
+      long high = median;
+      while (low < high) {
+        long middle = low + (high - low) / 2;
+        if (getTotalDistance(middle) < cutoff) {
+          high = middle;
+        } else {
+          low = middle + 1;
+        }
+      }
+      long first = low;
+
+      low = median;
+      high = sorted[sorted.length / 2] + cutoff;
+      while (low < high) {
+        long middle = low + (high - low + 1) / 2;
+        if (getTotalDistance(middle) < cutoff) {
+          low = middle;
+        } else {
+          high = middle - 1;
+        }
+      }
+      long last = low;
+      if (last - first + 1 > Integer.MAX_VALUE - 8) {
+        throw new IllegalArgumentException("Too many values under cutoff " + cutoff);
+      }
 
-  /**
-   * Returns true iff {@code current} is closer to {@code anchor} than to any other point in {@code
-   * allPoints}.
-   */
-  private static boolean isClosestToAnchor(Point current, Point anchor, List<Point> allPoints) {
-    int distance = manhattanDistance(current, anchor);
+      // Walk the interval, adding (# at most c) - (# above c) per step
+      long[] totals = new long[(int) (last - first + 1)];
+      int below = countAtMost(first);
+      totals[0] = getTotalDistance(first);
+      int minimum = 0;
+      for (int i = 1; i < totals.length; i++) {
+        long c = first + i;
+        while (below < sorted.length && sorted[below] < c) {
+          below++;
+        }
+        totals[i] = totals[i - 1] + below - (sorted.length - below);
+        if (totals[i] < totals[minimum]) {
+          minimum = i;
+        }
+      }
 
-    for (Point point : allPoints) {
-      if (!point.equals(anchor) && manhattanDistance(current, point) <= distance) {
-        return false;
+      long[] ascending = new long[totals.length];
+      int left = minimum - 1;
+      int right = minimum;
+      for (int i = 0; i < ascending.length; i++) {
+        if (right < totals.length && (left < 0 || totals[right] <= totals[left])) {
+          ascending[i] = totals[right++];
+        } else {
+          ascending[i] = totals[left--];
+        }
       }
+      return ascending;
     }
 
-    return true;
-  }
-
-  private static int manhattanDistance(Point a, Point b) {
-    return Math.abs(a.x - b.x) + Math.abs(a.y - b.y);
+    private int countAtMost(long c) {
+      int low = 0;
+      int high = sorted.length;
+      while (low < high) {
+        int middle = (low + high) >>> 1;
+        if (sorted[middle] <= c) {
+          low = middle + 1;
+        } else {
+          high = middle;
+        }
+      }
+      return low;
+    }
   }
 
   /**
@@ -170,7 +215,7 @@ public class Day06 {
   // Our conjecture is that if there any of these cones contains no named points other than A (where
   // each cone includes the separating lines on either side), then there will be infinitely many
   // spaces closer to A than to any other named point.
-  private static boolean isCloseToInfinitelyManySpaces(List<Point> allPoints, Point toTest) {
+  static boolean isCloseToInfinitelyManySpaces(List<Point> allPoints, Point toTest) {
     boolean northCone = false;
     boolean eastCone = false;
     boolean westCone = false;
@@ -201,4 +246,94 @@ public class Day06 {
     // A point is close to infinity if any of its cones are unobstructed
     return !(northCone && eastCone && southCone && westCone);
   }
+
+  /**
+   * Returns, for each point, whether infinitely many cells are closer to it than to any other
+   * point, in O(n log n).
+   *
+   * <p>In coordinates rotated by 45 degrees, u = x + y and v = y - x, another point R lies in A's
+   * closed northern cone (see {@link #isCloseToInfinitelyManySpaces}) exactly when u_R <= u_A and
+   * v_R <= v_A, and likewise each other cone is a quadrant of the (u, v) plane. So a point has an
+   * unobstructed cone exactly when it is on the staircase of points undominated in one of the four
+   * quadrant orders. Each sort by u serves two opposite quadrants, swept forwards and backwards.
+   *
+   * <p>The cone criterion is exact, not just a heuristic. If R lies in A's northern cone, then R is
+   * at least as close as A to every cell north of both, in any column. If the cone is empty, A is
+   * strictly closest to every cell straight north of it. And every cell far enough away is north,
+   * east, south or west of all points, in some column or row. (The convex hull is not the right
+   * test under this metric: a point just inside a hull edge can still be strictly closest to the
+   * cells straight beyond that edge.)
+   */
+  static boolean[] findUnboundedRegions(List<Point> allPoints) {
+    int n = allPoints.size();
+    long[] u = new long[n];
+    long[] v = new long[n];
+    Integer[] order = new Integer[n];
+    for (int i = 0; i < n; i++) {
+      u[i] = (long) allPoints.get(i).x + allPoints.get(i).y;
+      v[i] = (long) allPoints.get(i).y - allPoints.get(i).x;
+      order[i] = i;
+    }
+
+    boolean[] unbounded = new boolean[n];
+    for (int sign = 1; sign >= -1; sign -= 2) {
+      // By u then v: north (forwards) and south (backwards), then by u then -v: west and east
+      int vSign = sign;
+      Arrays.sort(
+          order,
+          Comparator.<Integer>comparingLong(i -> u[i]).thenComparingLong(i -> vSign * v[i]));
+
+      // A point is obstructed by any point before it in the sweep with no greater (signed) v
+      long minimumV = Long.MAX_VALUE;
+      for (int k = 0; k < n; k++) {
+        long signedV = vSign * v[order[k]];
+        if (signedV < minimumV) {
+          minimumV = signedV;
+          unbounded[order[k]] = true;
+        }
+      }
+      minimumV = Long.MAX_VALUE;
+      for (int k = n - 1; k >= 0; k--) {
+        long signedV = -vSign * v[order[k]];
+        if (signedV < minimumV) {
+          minimumV = signedV;
+          unbounded[order[k]] = true;
+        }
+      }
+    }
+
+    // Coincident points are equally close to every cell, so neither is ever closest
+    for (int i = 1; i < n; i++) {
+      if (u[order[i]] == u[order[i - 1]] && v[order[i]] == v[order[i - 1]]) {
+        unbounded[order[i]] = false;
+        unbounded[order[i - 1]] = false;
+      }
+    }
+
+    return unbounded;
+  }
+
+  /**
+   * Checks {@link #findUnboundedRegions} against the cone method and against the regions found by
+   * labeling the grid, throwing if they disagree. Coincident points are skipped for the cone
+   * method, which only tells points apart by identity.
+   */
+  static void checkUnboundedRegions(List<Point> allPoints) {
+    boolean[] unbounded = findUnboundedRegions(allPoints);
+    VoronoiGrid grid = new VoronoiGrid(allPoints);
+    Map<Point, Integer> counts = new HashMap<>();
+    for (Point point : allPoints) {
+      counts.merge(point, 1, Integer::sum);
+    }
+
+    for (int i = 0; i < allPoints.size(); i++) {
+      Point point = allPoints.get(i);
+      boolean coincident = counts.get(point) > 1;
+      if (unbounded[i] != grid.isUnbounded(i)
+          || (!coincident && unbounded[i] != isCloseToInfinitelyManySpaces(allPoints, point))) {
+        throw new IllegalStateException(
+            "Disagreement on whether " + point + " has an unbounded region");
+      }
+    }
+  }
 }
@@ -1,61 +1,20 @@
 package advent;
 
 import java.io.IOException;
+import java.io.PrintStream;
 import java.util.*;
 import java.util.regex.Pattern;
 
-public class Day07 {
-  private static class Step implements Comparable<Step> {
-    private final char name;
-    private final List<Step> nextSteps = new ArrayList<>();
-    private final List<Step> priorSteps = new ArrayList<>();
+public class Day07 implements Solver<Day07.Instructions> {
 
-    public Step(char name) {
-      this.name = name;
-    }
-
-    public char getName() {
-      return name;
-    }
-
-    public void addNextStep(Step next) {
-      nextSteps.add(next);
-    }
-
-    public List<Step> getNextSteps() {
-      return new ArrayList<>(nextSteps);
-    }
-
-    public void addPriorStep(Step prior) {
-      priorSteps.add(prior);
-    }
-
-    public List<Step> getPriorSteps() {
-      return new ArrayList<>(priorSteps);
-    }
+  /** The steps' names, in alphabetical order, and their dependencies by index into them. */
+  static class Instructions {
+    public final String[] names;
+    public final StepScheduler scheduler;
 
-    public int getDuration() {
-      return BASE_STEP_DURATION + (name - 'A' + 1);
-    }
-
-    @Override
-    public int compareTo(Step other) {
-      return Character.compare(name, other.name);
-    }
-  }
-
-  private static class Task implements Comparable<Task> {
-    public final Step step;
-    public final int endTime;
-
-    public Task(Step step, int endTime) {
-      this.step = step;
-      this.endTime = endTime;
-    }
-
-    @Override
-    public int compareTo(Task other) {
-      return Integer.compare(endTime, other.endTime);
+    public Instructions(String[] names, StepScheduler scheduler) {
+      this.names = names;
+      this.scheduler = scheduler;
     }
   }
 
@@ -63,102 +22,134 @@ public class Day07 {
   private static final int NUM_WORKERS = 6;
 
   private static final Pattern INSTRUCTION_PATTERN =
-      Pattern.compile("Step (\\w) must be finished before step (\\w) can begin");
+      Pattern.compile("Step (\\w+) must be finished before step (\\w+) can begin");
 
   public static void main(String[] args) throws IOException {
-    Set<Step> allSteps = initializeSteps(FileUtility.fileToString("input/07.txt").split("\n"));
-
-    // Part one
-    FileUtility.printAndOutput(getStepExecutionOrder(allSteps), "output/07a.txt");
+    Solvers.solveAndOutput("07", new Day07());
+  }
 
-    // Part two
-    FileUtility.printAndOutput(getTotalCompletionTime(allSteps), "output/07b.txt");
+  @Override
+  public Instructions parse(String filepath) throws IOException {
+    return initializeSteps(LineSource.map(filepath));
   }
 
-  private static int getTotalCompletionTime(Set<Step> allSteps) {
-    int availableWorkers = NUM_WORKERS;
-    int currentTime = 0;
-    Set<Step> completedSteps = new HashSet<>(allSteps.size());
-    PriorityQueue<Step> currentSteps = getFirstSteps(allSteps);
-    PriorityQueue<Task> tasks = new PriorityQueue<>();
-    while (completedSteps.size() != allSteps.size()) {
-      while (availableWorkers > 0 && !currentSteps.isEmpty()) {
-        Step current = currentSteps.remove();
-        tasks.add(new Task(current, currentTime + current.getDuration()));
-        availableWorkers--;
-        System.err.printf(
-            "[%s] Started step %c at time %d\n", availableWorkers, current.getName(), currentTime);
-      }
+  @Override
+  public Object partOne(Instructions instructions) {
+    return getStepExecutionOrder(instructions);
+  }
 
-      Task finished = tasks.remove();
-      currentTime = finished.endTime;
-      completedSteps.add(finished.step);
-      availableWorkers++;
-      for (Step next : finished.step.getNextSteps()) {
-        if (completedSteps.containsAll(next.getPriorSteps())) {
-          currentSteps.add(next);
-        }
-      }
-      System.err.printf(
-          "[%s] Finished step %c at time %d\n",
-          availableWorkers, finished.step.getName(), currentTime - 1);
-    }
-    return currentTime;
+  @Override
+  public Object partTwo(Instructions instructions) {
+    return getTotalCompletionTime(instructions, NUM_WORKERS, BASE_STEP_DURATION, null);
   }
 
-  private static String getStepExecutionOrder(Set<Step> allSteps) {
-    Set<Step> completedSteps = new HashSet<>(allSteps.size());
-    PriorityQueue<Step> currentSteps = getFirstSteps(allSteps);
-    StringBuilder executionOrder = new StringBuilder(allSteps.size());
-    while (!currentSteps.isEmpty()) {
-      Step current = currentSteps.remove();
+  /**
+   * Returns when the last step finishes, with {@code workers} working in parallel, and reporting
+   * every start and finish to {@code listener} if not null (see {@link #tracingTo}).
+   */
+  static long getTotalCompletionTime(
+      Instructions instructions,
+      int workers,
+      int baseStepDuration,
+      StepScheduler.Listener listener) {
+    return instructions.scheduler.getCompletionTime(
+        workers, getDurations(instructions.names, baseStepDuration), listener);
+  }
 
-      completedSteps.add(current);
-      executionOrder.append(current.getName());
+  static String getStepExecutionOrder(Instructions instructions) {
+    StringBuilder executionOrder = new StringBuilder();
+    for (int step : instructions.scheduler.getExecutionOrder()) {
+      executionOrder.append(instructions.names[step]);
+    }
+    return executionOrder.toString();
+  }
 
-      for (Step next : current.getNextSteps()) {
-        if (completedSteps.containsAll(next.getPriorSteps())) {
-          currentSteps.add(next);
+  /**
+   * Step A takes the base duration plus 1, B plus 2, and so on. Longer names continue the
+   * sequence as spreadsheet columns do: Z is 26, AA 27, AZ 52, BA 53.
+   */
+  static int[] getDurations(String[] names, int baseStepDuration) {
+    int[] durations = new int[names.length];
+    for (int step = 0; step < names.length; step++) {
+      long duration = 0;
+      for (int i = 0; i < names[step].length(); i++) {
+        char letter = names[step].charAt(i);
+        if (letter < 'A' || letter > 'Z' || duration > Integer.MAX_VALUE) {
+          throw new IllegalArgumentException("No duration for step " + names[step]);
         }
+        duration = duration * 26 + (letter - 'A' + 1);
+      }
+      if (baseStepDuration + duration > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException("Step " + names[step] + " takes too long");
       }
+      durations[step] = (int) (baseStepDuration + duration);
     }
-
-    return executionOrder.toString();
+    return durations;
   }
 
-  private static Step getStep(Map<Character, Step> steps, char name) {
-    if (steps.containsKey(name)) {
-      return steps.get(name);
-    }
+  /** Returns a listener printing each event, and the number of busy workers after it. */
+  static StepScheduler.Listener tracingTo(PrintStream out, String[] names) {
+    return new StepScheduler.Listener() {
+      private int busyWorkers = 0;
+
+      @Override
+      public void started(int step, long time) {
+        busyWorkers++;
+        out.printf("[%d] Started step %s at time %d%n", busyWorkers, names[step], time);
+      }
 
-    Step step = new Step(name);
-    steps.put(name, step);
-    return step;
+      @Override
+      public void finished(int step, long time) {
+        busyWorkers--;
+        out.printf("[%d] Finished step %s at time %d%n", busyWorkers, names[step], time);
+      }
+    };
   }
 
-  private static Set<Step> initializeSteps(String[] instructions) {
-    Map<Character, Step> steps = new HashMap<>();
-    for (String instruction : instructions) {
+  static Instructions initializeSteps(LineSource instructions) {
+    Map<String, Integer> ids = new HashMap<>();
+    List<String> names = new ArrayList<>();
+    int[] priorSteps = new int[16];
+    int[] nextSteps = new int[16];
+    int edges = 0;
+    for (ByteSlice instruction : instructions) {
       List<String> stepNames = ParseUtility.getMatchedGroups(instruction, INSTRUCTION_PATTERN);
-      Step prior = getStep(steps, stepNames.get(0).charAt(0));
-      Step next = getStep(steps, stepNames.get(1).charAt(0));
+      if (edges == priorSteps.length) {
+        priorSteps = Arrays.copyOf(priorSteps, 2 * edges);
+        nextSteps = Arrays.copyOf(nextSteps, 2 * edges);
+      }
+      priorSteps[edges] = getStepId(ids, names, stepNames.get(0));
+      nextSteps[edges] = getStepId(ids, names, stepNames.get(1));
+      edges++;
+    }
 
-      prior.addNextStep(next);
-      next.addPriorStep(prior);
+    // Number the steps alphabetically, so that the scheduler's lowest ID first is name order
+    String[] sortedNames = names.toArray(new String[0]);
+    Arrays.sort(sortedNames);
+    int[] sortedIds = new int[names.size()];
+    for (int id = 0; id < names.size(); id++) {
+      sortedIds[id] = Arrays.binarySearch(sortedNames, names.get(id));
+    }
+    for (int i = 0; i < edges; i++) {
+      priorSteps[i] = sortedIds[priorSteps[i]];
+      nextSteps[i] = sortedIds[nextSteps[i]];
     }
-    return new HashSet<>(steps.values());
-  }
 
-  private static PriorityQueue<Step> getFirstSteps(Set<Step> allSteps) {
-    PriorityQueue<Step> firstSteps = new PriorityQueue<>(allSteps.size());
+    return new Instructions(
+        sortedNames,
+        new StepScheduler(
+            names.size(),
+            Arrays.copyOf(priorSteps, edges),
+            Arrays.copyOf(nextSteps, edges)));
+  }
 
-    // Remove all steps that follow other steps
-    for (Step step : allSteps) {
-      if (step.getPriorSteps().isEmpty()) {
-        firstSteps.add(step);
-      }
+  private static int getStepId(Map<String, Integer> ids, List<String> names, String name) {
+    Integer id = ids.get(name);
+    if (id == null) {
+      id = names.size();
+      ids.put(name, id);
+      names.add(name);
     }
-
-    return firstSteps;
+    return id;
   }
 }
@@ -3,8 +3,8 @@ package advent;
 import java.io.IOException;
 import java.util.Arrays;
 
-public class Day08 {
-  private static class Node {
+public class Day08 implements Solver<Day08.NodeData> {
+  static class Node {
     public final Node[] children;
     public final int[] metadata;
 
@@ -14,7 +14,7 @@ public class Day08 {
     }
   }
 
-  private static class NodeData {
+  static class NodeData {
     public final Node node;
     public final int nodeEnd;
     public final int metadataSum;
@@ -26,7 +26,7 @@ public class Day08 {
     }
   }
 
-  private static NodeData createNode(int[] specification, int nodeStart) {
+  static NodeData createNode(int[] specification, int nodeStart) {
     Node current = new Node(specification[nodeStart], specification[nodeStart + 1]);
     int metadataSum = 0;
 
@@ -47,19 +47,23 @@ public class Day08 {
   }
 
   public static void main(String[] args) throws IOException {
-    int[] specification =
-        ParseUtility.extractIntegers(FileUtility.fileToString("input/08.txt"))
-            .stream()
-            .mapToInt(Integer::intValue)
-            .toArray();
+    Solvers.solveAndOutput("08", new Day08());
+  }
 
-    NodeData nodeData = createNode(specification, 0);
+  @Override
+  public NodeData parse(String filepath) throws IOException {
+    int[] specification = ParseUtility.extractInts(LineSource.map(filepath));
+    return createNode(specification, 0);
+  }
 
-    // Part one
-    FileUtility.printAndOutput(nodeData.metadataSum, "output/08a.txt");
+  @Override
+  public Object partOne(NodeData nodeData) {
+    return nodeData.metadataSum;
+  }
 
-    // Part two
-    FileUtility.printAndOutput(getModifiedMetadataSum(nodeData.node), "output/08b.txt");
+  @Override
+  public Object partTwo(NodeData nodeData) {
+    return getModifiedMetadataSum(nodeData.node);
   }
 
   public static int getModifiedMetadataSum(Node root) {
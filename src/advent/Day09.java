@@ -3,7 +3,7 @@ package advent;
 import java.io.IOException;
 import java.util.List;
 
-public class Day09 {
+public class Day09 implements Solver<List<Integer>> {
   private static class Marble {
     public Marble previous;
     public Marble next;
@@ -77,19 +77,25 @@ public class Day09 {
   }
 
   public static void main(String[] args) throws IOException {
-    List<Integer> params = ParseUtility.extractIntegers(FileUtility.fileToString("input/09.txt"));
+    Solvers.solveAndOutput("09", new Day09());
+  }
 
-    final int NUM_PLAYERS = params.get(0);
-    final int HIGHEST_MARBLE = params.get(1);
+  @Override
+  public List<Integer> parse(String filepath) throws IOException {
+    return ParseUtility.extractIntegers(FileUtility.fileToString(filepath));
+  }
 
-    // Part one
-    FileUtility.printAndOutput(getHighScore(NUM_PLAYERS, HIGHEST_MARBLE), "output/09a.txt");
+  @Override
+  public Object partOne(List<Integer> params) {
+    return getHighScore(params.get(0), params.get(1));
+  }
 
-    // Part two
-    FileUtility.printAndOutput(getHighScore(NUM_PLAYERS, HIGHEST_MARBLE * 100), "output/09b.txt");
+  @Override
+  public Object partTwo(List<Integer> params) {
+    return getHighScore(params.get(0), params.get(1) * 100);
   }
 
-  private static long getHighScore(int numPlayers, int highestMarble) {
+  static long getHighScore(int numPlayers, int highestMarble) {
     long[] playerScores = new long[numPlayers];
 
     Marble currentMarble = new Marble(0);
@@ -5,7 +5,7 @@ import java.util.*;
 import java.util.List;
 import java.util.stream.Collectors;
 
-public class Day10 {
+public class Day10 implements Solver<Day10.Sky> {
 
   private static final int NUM_TRIALS = 15000; // Determined by trial-and-error
 
@@ -60,18 +60,18 @@ public class Day10 {
     }
   }
 
-  private static class Point {
+  static class Point {
     public final Position initialPosition;
     public Position currentPosition;
     public int xVelocity;
     public int yVelocity;
 
-    public Point(String specification) {
-      List<Integer> args = ParseUtility.extractIntegers(specification);
-      initialPosition = new Position(args.get(0), args.get(1));
+    public Point(CharSequence specification) {
+      int[] args = ParseUtility.extractInts(specification);
+      initialPosition = new Position(args[0], args[1]);
       currentPosition = initialPosition.copy();
-      xVelocity = args.get(2);
-      yVelocity = args.get(3);
+      xVelocity = args[2];
+      yVelocity = args[3];
     }
 
     public void move(int timeDelta) {
@@ -79,23 +79,47 @@ public class Day10 {
     }
   }
 
+  /** Both parts read off the same alignment, which is computed on first use. */
+  static class Sky {
+    public final List<Point> points;
+    public final Set<Position> occupiedPositions;
+
+    private int timeOfMax = -1;
+
+    public Sky(List<Point> points) {
+      this.points = points;
+      this.occupiedPositions = new HashSet<>(points.size());
+    }
+
+    public int align() {
+      if (timeOfMax < 0) {
+        timeOfMax = getTimeOfMaxPercentWithNeighbors(occupiedPositions, points);
+      }
+      return timeOfMax;
+    }
+  }
+
   public static void main(String[] args) throws IOException {
-    List<Point> points =
-        Arrays.stream(FileUtility.fileToString("input/10.txt").split("\n"))
-            .map(Point::new)
-            .collect(Collectors.toList());
+    Solvers.solveAndOutput("10", new Day10());
+  }
 
-    Set<Position> occupiedPositions = new HashSet<>(points.size());
-    int timeOfMax = getTimeOfMaxPercentWithNeighbors(occupiedPositions, points);
+  @Override
+  public Sky parse(String filepath) throws IOException {
+    return new Sky(LineSource.map(filepath).lines().map(Point::new).collect(Collectors.toList()));
+  }
 
-    // Part one
-    FileUtility.printAndOutput(gridToString(occupiedPositions), "output/10a.txt");
+  @Override
+  public Object partOne(Sky sky) {
+    sky.align();
+    return gridToString(sky.occupiedPositions);
+  }
 
-    // Part two
-    FileUtility.printAndOutput(timeOfMax, "output/10b.txt");
+  @Override
+  public Object partTwo(Sky sky) {
+    return sky.align();
   }
 
-  private static int getTimeOfMaxPercentWithNeighbors(Set<Position> occupiedPositions, List<Point> points) {
+  static int getTimeOfMaxPercentWithNeighbors(Set<Position> occupiedPositions, List<Point> points) {
     movePoints(occupiedPositions, points, 0);
 
     double maxPercentWithNeighbors = 0;
@@ -2,9 +2,9 @@ package advent;
 
 import java.io.IOException;
 
-public class Day11 {
+public class Day11 implements Solver<Integer> {
 
-  private static class FuelSquare {
+  static class FuelSquare {
     public int totalPower;
     public int xCorner;
     public int yCorner;
@@ -24,18 +24,25 @@ public class Day11 {
   private static final int SQUARE_SIZE = 3;
 
   public static void main(String[] args) throws IOException {
-    final int gridSerialNumber = Integer.parseInt(FileUtility.fileToString("input/11.txt"));
+    Solvers.solveAndOutput("11", new Day11());
+  }
+
+  @Override
+  public Integer parse(String filepath) throws IOException {
+    return Integer.parseInt(FileUtility.fileToString(filepath));
+  }
 
-    // Part one
-    FileUtility.printAndOutput(
-        findMaxFuelSquare(SQUARE_SIZE, Day11::sumSquare, gridSerialNumber), "output/11a.txt");
+  @Override
+  public Object partOne(Integer gridSerialNumber) {
+    return findMaxFuelSquare(SQUARE_SIZE, Day11::sumSquare, gridSerialNumber);
+  }
 
-    // Part two
-    FileUtility.printAndOutput(
-        findMaxFuelSquareAllSizes(gridSerialNumber).toStringWithSize(), "output/11b.txt");
+  @Override
+  public Object partTwo(Integer gridSerialNumber) {
+    return findMaxFuelSquareAllSizes(gridSerialNumber).toStringWithSize();
   }
 
-  private static FuelSquare findMaxFuelSquareAllSizes(int gridSerialNumber) {
+  static FuelSquare findMaxFuelSquareAllSizes(int gridSerialNumber) {
     int[][] previousSquareSums = new int[GRID_SIZE][GRID_SIZE];
     FuelSquare maxAllSizes = new FuelSquare();
 
@@ -54,7 +61,7 @@ public class Day11 {
     return maxAllSizes;
   }
 
-  private static FuelSquare findMaxFuelSquare(
+  static FuelSquare findMaxFuelSquare(
       int squareSize, SquareSumFunction squareSumFunction, int gridSerialNumber) {
     FuelSquare maxPowerSquare = new FuelSquare();
     maxPowerSquare.size = squareSize;
@@ -76,11 +83,11 @@ public class Day11 {
   }
 
   @FunctionalInterface
-  private interface SquareSumFunction {
+  interface SquareSumFunction {
     int sumSquare(int xCorner, int yCorner, int size, int gridSerialNumber);
   }
 
-  private static int sumSquare(int xCorner, int yCorner, int squareSize, int gridSerialNumber) {
+  static int sumSquare(int xCorner, int yCorner, int squareSize, int gridSerialNumber) {
     int sum = 0;
     for (int x = 0; x < squareSize; x++) {
       for (int y = 0; y < squareSize; y++) {
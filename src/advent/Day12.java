@@ -4,32 +4,50 @@ import java.io.IOException;
 import java.util.*;
 import java.util.regex.Pattern;
 
-public class Day12 {
-  private static final Pattern PLANT_PATTERN = Pattern.compile("([#.]+)");
+public class Day12 implements Solver<Day12.Garden> {
+  static final Pattern PLANT_PATTERN = Pattern.compile("([#.]+)");
   private static final int MAX_SPREAD_PER_GENERATION = 2;
   private static final int NUM_GENERATIONS_PART_1 = 20;
   private static final int PATTERN_LENGTH = 5;
   private static final long NUM_GENERATIONS_PART_2 = 50_000_000_000L;
 
+  static class Garden {
+    public final String initialState;
+    public final Map<String, Character> rules;
+
+    public Garden(String initialState, Map<String, Character> rules) {
+      this.initialState = initialState;
+      this.rules = rules;
+    }
+  }
+
   public static void main(String[] args) throws IOException {
-    String[] input = FileUtility.fileToString("input/12.txt").split("\n");
+    Solvers.solveAndOutput("12", new Day12());
+  }
+
+  @Override
+  public Garden parse(String filepath) throws IOException {
+    String[] input = FileUtility.fileToLines(filepath);
 
     String initialState = ParseUtility.firstMatch(input[0], PLANT_PATTERN);
     Map<String, Character> rules = parseRules(Arrays.copyOfRange(input, 2, input.length));
+    return new Garden(initialState, rules);
+  }
 
-    // Part one
-    FileUtility.printAndOutput(
-        getSum(getFinalState(initialState, rules, NUM_GENERATIONS_PART_1)), "output/12a.txt");
+  @Override
+  public Object partOne(Garden garden) {
+    return getSum(getFinalState(garden.initialState, garden.rules, NUM_GENERATIONS_PART_1));
+  }
 
-    // Part two
+  @Override
+  public Object partTwo(Garden garden) {
     // Pretty inefficient with the current implementation of getFinalState (previous generations are
     // recomputed each time a new generation is tested). Should be replaced with a 'nextState'
     // function.
-    FileUtility.printAndOutput(
-        getLongTermSum(rules, initialState, NUM_GENERATIONS_PART_2), "output/12b.txt");
+    return getLongTermSum(garden.rules, garden.initialState, NUM_GENERATIONS_PART_2);
   }
 
-  private static Map<String, Character> parseRules(String[] rulesText) {
+  static Map<String, Character> parseRules(String[] rulesText) {
     Map<String, Character> rules = new HashMap<>(rulesText.length - 2);
     for (int i = 0; i < rulesText.length; i++) {
       String[] rule = rulesText[i].split("\\s+=>\\s+");
@@ -51,7 +69,7 @@ public class Day12 {
    * containing the same pattern of plants, but shifted. Computes generations up to this point, then
    * extrapolates.
    */
-  private static long getLongTermSum(
+  static long getLongTermSum(
       Map<String, Character> rules, String initialState, long numGenerations) {
     State previousState;
     State currentState = new State(initialState, 0);
@@ -66,7 +84,7 @@ public class Day12 {
     return getSum(currentState) + difference * (numGenerations - generation);
   }
 
-  private static class State {
+  static class State {
     public final String state;
     public final int zeroIndex;
 
@@ -94,7 +112,7 @@ public class Day12 {
   }
 
   // TODO: Replace with incremental 'nextState' version to prevent rerunning previous generations
-  private static State getFinalState(
+  static State getFinalState(
       String initialState, Map<String, Character> rules, int numGenerations) {
     final int bufferSize = MAX_SPREAD_PER_GENERATION * numGenerations;
     char[] plants = new char[bufferSize * 2 + initialState.length()];
@@ -5,7 +5,7 @@ import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
-public class Day13 {
+public class Day13 implements Solver<Day13.Tracks> {
 
   private enum Direction {
     NORTH(0, -1),
@@ -48,7 +48,7 @@ public class Day13 {
     }
   }
 
-  private static class Cart implements Comparable<Cart> {
+  static class Cart implements Comparable<Cart> {
     public Direction dir;
     public Day10.Position pos;
     public boolean hasCollided = false;
@@ -65,9 +65,9 @@ public class Day13 {
       return pos.compareTo(other.pos);
     }
 
-    public boolean tick(char[][] map, Map<Day10.Position, Cart> carts) {
+    public boolean tick(CharGrid map, Map<Day10.Position, Cart> carts) {
       carts.remove(pos);
-      char track = map[pos.x][pos.y];
+      char track = map.get(pos.x, pos.y);
 
       if (track == '/') {
         switch (dir) {
@@ -163,33 +163,65 @@ public class Day13 {
     }
   }
 
+  /** Both parts read off the same simulation, which is run on first use. */
+  static class Tracks {
+    public final CharGrid map;
+    public final List<Cart> carts;
+
+    private Day10.Position[] cartOutcomes = null;
+
+    public Tracks(CharGrid map, List<Cart> carts) {
+      this.map = map;
+      this.carts = carts;
+    }
+
+    public Day10.Position[] getCartOutcomes() {
+      if (cartOutcomes == null) {
+        cartOutcomes = Day13.getCartOutcomes(map, carts);
+      }
+      return cartOutcomes;
+    }
+  }
+
   public static void main(String[] args) throws IOException {
-    String[] lines = FileUtility.fileToString("input/13.txt").split("\n");
+    Solvers.solveAndOutput("13", new Day13());
+  }
 
-    char[][] map = parseMap(lines);
-    List<Cart> carts = parseCarts(map);
-    Day10.Position[] cartOutcomes = getCartOutcomes(map, carts);
+  @Override
+  public Tracks parse(String filepath) throws IOException {
+    CharGrid map = parseMap(FileUtility.fileToLines(filepath));
+    return new Tracks(map, parseCarts(map));
+  }
 
-    // Part one
-    FileUtility.printAndOutput(cartOutcomes[0].x + "," + cartOutcomes[0].y, "output/13a.txt");
+  @Override
+  public Object partOne(Tracks tracks) {
+    Day10.Position firstCollision = tracks.getCartOutcomes()[0];
+    return firstCollision.x + "," + firstCollision.y;
+  }
 
-    // Part one
-    FileUtility.printAndOutput(cartOutcomes[1].x + "," + cartOutcomes[1].y, "output/13a.txt");
+  @Override
+  public Object partTwo(Tracks tracks) {
+    Day10.Position lastCart = tracks.getCartOutcomes()[1];
+    return lastCart.x + "," + lastCart.y;
   }
 
-  private static Day10.Position[] getCartOutcomes(char[][] map, List<Cart> carts) {
+  static Day10.Position[] getCartOutcomes(CharGrid map, List<Cart> carts) {
     Map<Day10.Position, Cart> cartPositions =
         carts.stream().collect(Collectors.toMap(c -> c.pos, Function.identity()));
 
     Day10.Position firstCollision = null;
     Day10.Position lastCart = null;
+    long ticks = 0;
+    long cartMoves = 0;
     while (lastCart == null) {
       Collections.sort(carts);
+      ticks++;
       for (Cart cart : carts) {
         if (cart.hasCollided) {
           continue;
         }
 
+        cartMoves++;
         if (cart.tick(map, cartPositions)) { // If collision
           if (firstCollision == null) {
             firstCollision = cart.pos;
@@ -200,31 +232,25 @@ public class Day13 {
       }
     }
 
+    SolverMetrics.count("ticks", ticks);
+    SolverMetrics.count("cartMoves", cartMoves);
     return new Day10.Position[] {firstCollision, lastCart};
   }
 
-  private static char[][] parseMap(String[] lines) {
-    char[][] map = new char[lines[0].length()][lines.length];
-
-    for (int x = 0; x < map.length; x++) {
-      for (int y = 0; y < map[0].length; y++) {
-        map[x][y] = lines[y].charAt(x);
-      }
-    }
-
-    return map;
+  static CharGrid parseMap(String[] lines) {
+    return CharGrid.fromLines(lines);
   }
 
-  private static List<Cart> parseCarts(char[][] map) {
+  static List<Cart> parseCarts(CharGrid map) {
     List<Cart> carts = new ArrayList<>();
 
-    for (int x = 0; x < map.length; x++) {
-      for (int y = 0; y < map[0].length; y++) {
-        char current = map[x][y];
+    for (int y = map.getMinY(); y <= map.getMaxY(); y++) {
+      for (int x = map.getMinX(); x <= map.getMaxX(); x++) {
+        char current = map.get(x, y);
 
         if (isCart(current)) {
           carts.add(new Cart(current, new Day10.Position(x, y)));
-          map[x][y] = getTrack(current); // Replace cart icons with track
+          map.set(x, y, getTrack(current)); // Replace cart icons with track
         }
       }
     }
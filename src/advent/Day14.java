@@ -4,13 +4,13 @@ import java.io.IOException;
 import java.util.*;
 import java.util.stream.IntStream;
 
-public class Day14 {
+public class Day14 implements Solver<Day14.Scoreboard> {
 
   private static final int NUM_ELVES = 2;
   private static final Integer[] STARTING_SCORES = new Integer[] {3, 7};
   private static final int TRAILING_SCORES = 10;
 
-  private static Collection<Integer> getDigits(int number) {
+  static Collection<Integer> getDigits(int number) {
     ArrayDeque<Integer> digits = new ArrayDeque<>();
 
     if (number == 0) {
@@ -24,17 +24,43 @@ public class Day14 {
     return digits;
   }
 
+  /** Both parts read off the same scores, which are generated on first use. */
+  static class Scoreboard {
+    public final int baseScoreCount;
+    public final List<Integer> digits;
+
+    private List<Integer> scores = null;
+
+    public Scoreboard(int baseScoreCount) {
+      this.baseScoreCount = baseScoreCount;
+      this.digits = new ArrayList<>(getDigits(baseScoreCount));
+    }
+
+    public List<Integer> getScores() {
+      if (scores == null) {
+        scores = generateEnoughScores(baseScoreCount, digits);
+      }
+      return scores;
+    }
+  }
+
   public static void main(String[] args) throws IOException {
-    final int baseScoreCount = Integer.parseInt(FileUtility.fileToString("input/14.txt"));
-    List<Integer> digits = new ArrayList<>(getDigits(baseScoreCount));
+    Solvers.solveAndOutput("14", new Day14());
+  }
 
-    List<Integer> scores = generateEnoughScores(baseScoreCount, digits);
+  @Override
+  public Scoreboard parse(String filepath) throws IOException {
+    return new Scoreboard(Integer.parseInt(FileUtility.fileToString(filepath)));
+  }
 
-    // Part one
-    FileUtility.printAndOutput(getTrailingScores(baseScoreCount, scores), "output/14a.txt");
+  @Override
+  public Object partOne(Scoreboard scoreboard) {
+    return getTrailingScores(scoreboard.baseScoreCount, scoreboard.getScores());
+  }
 
-    // Part two
-    FileUtility.printAndOutput(Collections.indexOfSubList(scores, digits), "output/14b.txt");
+  @Override
+  public Object partTwo(Scoreboard scoreboard) {
+    return Collections.indexOfSubList(scoreboard.getScores(), scoreboard.digits);
   }
 
   private static String getTrailingScores(int baseScoreCount, List<Integer> scores) {
@@ -45,7 +71,7 @@ public class Day14 {
     return builder.toString();
   }
 
-  private static List<Integer> generateEnoughScores(int baseScoreCount, List<Integer> digits) {
+  static List<Integer> generateEnoughScores(int baseScoreCount, List<Integer> digits) {
     final int minimumNumScores = baseScoreCount + TRAILING_SCORES;
 
     List<Integer> scores = new ArrayList<>(Arrays.asList(STARTING_SCORES));
@@ -4,7 +4,7 @@ import java.io.IOException;
 import java.util.*;
 import java.util.stream.Collectors;
 
-public class Day16 {
+public class Day16 implements Solver<Day16.Manual> {
 
   @FunctionalInterface
   public interface OpFunction {
@@ -54,14 +54,27 @@ public class Day16 {
     public final InputType typeA;
     public final InputType typeB;
 
+    private final BaseOp baseOp;
+
     Op(BaseOp baseOp, InputType typeA, InputType typeB) {
       this.function = baseOp.function;
       this.typeA = typeA;
       this.typeB = typeB;
+      this.baseOp = baseOp;
+    }
+
+    /** Returns the op performing the same operation on the given input types, or null if none. */
+    public Op withInputTypes(InputType typeA, InputType typeB) {
+      for (Op op : values()) {
+        if (op.baseOp == baseOp && op.typeA == typeA && op.typeB == typeB) {
+          return op;
+        }
+      }
+      return null;
     }
   }
 
-  private static class Sample {
+  static class Sample {
     public final int[] before;
     public final int[] after;
     public final int[] instruction;
@@ -93,35 +106,57 @@ public class Day16 {
     registers[registerC] = op.function.perform(valueA, valueB);
   }
 
+  static class Manual {
+    public final List<Sample> samples;
+    public final String program;
+
+    public Manual(List<Sample> samples, String program) {
+      this.samples = samples;
+      this.program = program;
+    }
+  }
+
   public static void main(String[] args) throws IOException {
-    String[] parts = FileUtility.fileToString("input/16.txt").split("\n\n\n\n");
-    List<Sample> samples = parseSamples(parts[0]);
+    Solvers.solveAndOutput("16", new Day16());
+  }
+
+  @Override
+  public Manual parse(String filepath) throws IOException {
+    String[] parts = FileUtility.fileToString(filepath).split("\n\n\n\n");
+    return new Manual(parseSamples(parts[0]), parts[1]);
+  }
 
-    // Part one
-    FileUtility.printAndOutput(
-        samples.stream().filter(s -> s.compatibleOps.size() >= 3).count(), "output/16a.txt");
+  @Override
+  public Object partOne(Manual manual) {
+    return manual.samples.stream().filter(s -> s.compatibleOps.size() >= 3).count();
+  }
 
-    // Part two
-    FileUtility.printAndOutput(
-        runProgramAndGetRegisters(parts[1], deriveOpcodes(samples))[0], "output/16b.txt");
+  @Override
+  public Object partTwo(Manual manual) {
+    // Deriving opcodes consumes each sample's compatible ops, so this must follow part one
+    return runProgramAndGetRegisters(manual.program, deriveOpcodes(manual.samples))[0];
   }
 
-  private static int[] runProgramAndGetRegisters(String program, Map<Integer, Op> opcodes) {
-    String[] instructionsText = program.split("\n");
-    int[][] instructions = new int[instructionsText.length][];
-    for (int i = 0; i < instructionsText.length; i++) {
-      instructions[i] = ParseUtility.extractInts(instructionsText[i]);
+  static int[] runProgramAndGetRegisters(String program, Map<Integer, Op> opcodes) {
+    CompiledProgram compiled = new CompiledProgram();
+    int[] instruction = new int[4];
+    for (String instructionText : program.split("\n")) {
+      int count = ParseUtility.extractInts(instructionText, instruction);
+      if (count == 0) {
+        continue;
+      }
+      if (count < instruction.length) {
+        throw new IllegalArgumentException("Malformed instruction: " + instructionText);
+      }
+      compiled.add(opcodes.get(instruction[0]), instruction[1], instruction[2], instruction[3]);
     }
 
     int[] registers = new int[4];
-
-    for (int[] instruction : instructions) {
-      perform(opcodes.get(instruction[0]), instruction, registers);
-    }
+    compiled.run(registers);
     return registers;
   }
 
-  private static List<Sample> parseSamples(String part) {
+  static List<Sample> parseSamples(String part) {
     String[] sampleSpecs = part.split("\n\n");
     List<Sample> samples = Arrays.stream(sampleSpecs).map(Sample::new).collect(Collectors.toList());
 
@@ -135,7 +170,7 @@ public class Day16 {
     return samples;
   }
 
-  private static Map<Integer, Op> deriveOpcodes(List<Sample> samples) {
+  static Map<Integer, Op> deriveOpcodes(List<Sample> samples) {
     Map<Integer, Op> opcodes = new HashMap<>(16);
     while (opcodes.size() < 16) {
       for (Sample s : samples) {
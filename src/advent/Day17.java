@@ -5,9 +5,9 @@ import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.List;
 
-public class Day17 {
+public class Day17 implements Solver<Day17.World> {
 
-  private enum Tile {
+  enum Tile {
     SAND(' '),
     CLAY('#'),
     FALLING_WATER('|'),
@@ -30,66 +30,87 @@ public class Day17 {
   private static final EnumSet<Tile> ALL_WATER =
       EnumSet.of(Tile.FALLING_WATER, Tile.RESTING_WATER, Tile.LEFT_WATER, Tile.RIGHT_WATER);
 
-  private static class World {
-    private final Tile[][] world;
-    private final int minX;
-    private final int minY;
+  private static final Tile[] TILES = Tile.values();
 
-    public World(Tile[][] world, int minX, int minY) {
+  private static final byte SAND = (byte) Tile.SAND.ordinal();
+
+  /* Icon for each tile, indexed by ordinal */
+  private static final char[] TILE_ICONS = new char[TILES.length];
+
+  static {
+    for (Tile tile : TILES) {
+      TILE_ICONS[tile.ordinal()] = tile.icon;
+    }
+  }
+
+  /** Tiles are stored by ordinal in a {@link ByteGrid}. */
+  static class World {
+    private final ByteGrid world;
+
+    private boolean filled = false;
+
+    public World(ByteGrid world) {
       this.world = world;
-      this.minX = minX;
-      this.minY = minY;
+    }
+
+    /** Lets water flow from the spring, unless it already has. */
+    public void fill() {
+      if (!filled) {
+        produceWater(this, 500, getMinY());
+        filled = true;
+      }
     }
 
     public Tile getTile(int x, int y) {
-      return DataUtility.isInBounds(world, x - minX, y - minY) ? world[x - minX][y - minY] : Tile.SAND;
+      return TILES[world.getOrDefault(x, y, SAND)];
     }
 
     public Tile setTile(int x, int y, Tile tile) {
-      world[x - minX][y - minY] = tile;
+      world.set(x, y, (byte) tile.ordinal());
       return tile;
     }
 
     public int countTiles(EnumSet<Tile> tiles) {
       int count = 0;
-
-      for (int x = getMinX(); x <= getMaxX(); x++) {
-        for (int y = getMinY(); y <= getMaxY(); y++) {
-          if (tiles.contains(getTile(x, y))) {
-            count++;
-          }
-        }
+      for (Tile tile : tiles) {
+        count += world.count((byte) tile.ordinal());
       }
-
       return count;
     }
-    
+
     public int getMinX() {
-      return minX;
+      return world.getMinX();
     }
 
     public int getMaxX() {
-      return minX + world.length - 1;
+      return world.getMaxX();
     }
 
     public int getMinY() {
-      return minY;
+      return world.getMinY();
     }
 
     public int getMaxY() {
-      return minY + world[0].length - 1;
+      return world.getMaxY();
     }
 
     @Override
     public String toString() {
-      return DataUtility.matrixToString(world);
+      return world.toString();
     }
   }
 
-  private static World parseWorld(String[] lines) {
+  static World parseWorld(String[] lines) {
     List<int[]> clayRectangles = new ArrayList<>(lines.length);
+    int[] coords = new int[3];
     for (String line : lines) {
-      int[] coords = ParseUtility.extractInts(line);
+      int count = ParseUtility.extractInts(line, coords);
+      if (count == 0) {
+        continue;
+      }
+      if (count < coords.length) {
+        throw new IllegalArgumentException("Malformed clay vein: " + line);
+      }
       int[] clayRectangle; // {xMin, xMax, minY, yMax}
 
       if (line.startsWith("x")) {
@@ -108,34 +129,43 @@ public class Day17 {
     int minY = clayRectangles.stream().mapToInt(c -> c[2]).min().getAsInt();
     int maxY = clayRectangles.stream().mapToInt(c -> c[3]).max().getAsInt();
 
-    Tile[][] world = new Tile[maxX - minX + 1][maxY - minY + 1];
-    DataUtility.fillMatrix(world, Tile.SAND);
+    ByteGrid world = new ByteGrid(minX, minY, maxX - minX + 1, maxY - minY + 1, TILE_ICONS);
+    world.fill(SAND);
 
+    byte clay = (byte) Tile.CLAY.ordinal();
     for (int[] clayRectangle : clayRectangles) {
-      for (int x = clayRectangle[0]; x <= clayRectangle[1]; x++) {
-        for (int y = clayRectangle[2]; y <= clayRectangle[3]; y++) {
-          world[x - minX][y - minY] = Tile.CLAY;
+      for (int y = clayRectangle[2]; y <= clayRectangle[3]; y++) {
+        for (int x = clayRectangle[0]; x <= clayRectangle[1]; x++) {
+          world.set(x, y, clay);
         }
       }
     }
 
-    return new World(world, minX, minY);
+    return new World(world);
   }
 
   public static void main(String[] args) throws IOException {
-    String[] lines = FileUtility.fileToString("input/17.txt").split("\n");
+    Solvers.solveAndOutput("17", new Day17());
+  }
 
-    World world = parseWorld(lines);
-    produceWater(world, 500, world.getMinY());
+  @Override
+  public World parse(String filepath) throws IOException {
+    return parseWorld(FileUtility.fileToLines(filepath));
+  }
 
-    // Part one
-    FileUtility.printAndOutput(world.countTiles(ALL_WATER), "output/17a.txt");
+  @Override
+  public Object partOne(World world) {
+    world.fill();
+    return world.countTiles(ALL_WATER);
+  }
 
-    // Part two
-    FileUtility.printAndOutput(world.countTiles(EnumSet.of(Tile.RESTING_WATER)), "output/17b.txt");
+  @Override
+  public Object partTwo(World world) {
+    world.fill();
+    return world.countTiles(EnumSet.of(Tile.RESTING_WATER));
   }
 
-  private static Tile produceWater(World world, int x, int y) {
+  static Tile produceWater(World world, int x, int y) {
     if (y > world.getMaxY()) {
       return Tile.FALLING_WATER;
     } else if (world.getTile(x, y) != Tile.SAND) {
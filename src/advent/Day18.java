@@ -1,16 +1,15 @@
 package advent;
 
 import java.io.IOException;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
-public class Day18 {
+public class Day18 implements Solver<ByteGrid> {
 
   private static final int PART_1_MINUTES = 10;
   private static final int PART_2_MINUTES = 1_000_000_000;
 
-  private enum Acre {
+  enum Acre {
     OPEN_GROUND('.'),
     TREES('|'),
     LUMBERYARD('#');
@@ -21,27 +20,43 @@ public class Day18 {
       this.icon = icon;
     }
 
+    public byte getValue() {
+      return (byte) ordinal();
+    }
+
     @Override
     public String toString() {
       return String.valueOf(icon);
     }
   }
 
-  private static Acre[][] parseWorld(String worldText) {
+  private static final Acre[] ACRES = Acre.values();
+
+  /* Icon for each acre, indexed by ordinal */
+  private static final char[] ACRE_ICONS = new char[ACRES.length];
+
+  static {
+    for (Acre acre : ACRES) {
+      ACRE_ICONS[acre.ordinal()] = acre.icon;
+    }
+  }
+
+  /** Acres are stored by ordinal in a {@link ByteGrid}. */
+  static ByteGrid parseWorld(String worldText) {
     String[] rows = worldText.split("\n");
-    Acre[][] world = new Acre[rows[0].length()][rows.length];
+    ByteGrid world = new ByteGrid(0, 0, rows[0].length(), rows.length, ACRE_ICONS);
 
-    for (int x = 0; x < world.length; x++) {
-      for (int y = 0; y < world[0].length; y++) {
+    for (int y = 0; y < world.getHeight(); y++) {
+      for (int x = 0; x < world.getWidth(); x++) {
         switch (rows[y].charAt(x)) {
           case '.':
-            world[x][y] = Acre.OPEN_GROUND;
+            world.set(x, y, Acre.OPEN_GROUND.getValue());
             break;
           case '|':
-            world[x][y] = Acre.TREES;
+            world.set(x, y, Acre.TREES.getValue());
             break;
           case '#':
-            world[x][y] = Acre.LUMBERYARD;
+            world.set(x, y, Acre.LUMBERYARD.getValue());
             break;
         }
       }
@@ -50,43 +65,40 @@ public class Day18 {
     return world;
   }
 
-  private static int countSurrounding(Acre[][] world, int x, int y, Acre acreType) {
-    int count = 0;
-
-    for (int currentX = x - 1; currentX <= x + 1; currentX++) {
-      for (int currentY = y - 1; currentY <= y + 1; currentY++) {
-        if (!(currentX == x && currentY == y)
-            && DataUtility.isInBounds(world, currentX, currentY)
-            && world[currentX][currentY] == acreType) {
-          count++;
-        }
-      }
-    }
-
-    return count;
+  private static int countSurrounding(ByteGrid world, int x, int y, Acre acreType) {
+    return world.countNeighbors(x, y, acreType.getValue());
   }
 
   public static void main(String[] args) throws IOException {
-    Acre[][] world = parseWorld(FileUtility.fileToString("input/18.txt"));
+    Solvers.solveAndOutput("18", new Day18());
+  }
 
-    // Part one
-    FileUtility.printAndOutput(getResourceValue(simulate(world, PART_1_MINUTES)), "output/18a.txt");
+  @Override
+  public ByteGrid parse(String filepath) throws IOException {
+    return parseWorld(FileUtility.fileToString(filepath));
+  }
+
+  @Override
+  public Object partOne(ByteGrid world) {
+    return getResourceValue(simulate(world, PART_1_MINUTES));
+  }
 
-    // Part two
-    FileUtility.printAndOutput(getResourceValue(simulate(world, PART_2_MINUTES)), "output/18b.txt");
+  @Override
+  public Object partTwo(ByteGrid world) {
+    return getResourceValue(simulate(world, PART_2_MINUTES));
   }
 
-  private static long getResourceValue(Acre[][] world) {
-    long treeCount =
-        Arrays.stream(world).flatMap(Arrays::stream).filter(Acre.TREES::equals).count();
-    long lumberyardCount =
-        Arrays.stream(world).flatMap(Arrays::stream).filter(Acre.LUMBERYARD::equals).count();
+  static long getResourceValue(ByteGrid world) {
+    long treeCount = world.count(Acre.TREES.getValue());
+    long lumberyardCount = world.count(Acre.LUMBERYARD.getValue());
 
     return treeCount * lumberyardCount;
   }
 
-  private static Acre[][] simulate(Acre[][] world, int totalMinutes) {
-    Map<String, Integer> previousAcres = new HashMap<>();
+  static ByteGrid simulate(ByteGrid world, int totalMinutes) {
+    // Each minute produces a new grid, so grids can safely be used as keys
+    Map<ByteGrid, Integer> previousAcres = new HashMap<>();
+    int generations = 0;
 
     for (int minute = 0; minute < totalMinutes; minute++) {
       // The strategy is to detect any time the world has returned to a previous state. If it's time
@@ -94,42 +106,45 @@ public class Day18 {
       // returned to again every (M - N) minutes. To save computation, we retain the state and skip
       // ahead by the maximum number of multiples of (M - N) possible while staying under
       // totalMinutes.
-      if (previousAcres.containsKey(DataUtility.matrixToString(world))) {
-        int delta = minute - previousAcres.get(DataUtility.matrixToString(world));
+      Integer previousMinute = previousAcres.putIfAbsent(world, minute);
+      if (previousMinute != null) {
+        int delta = minute - previousMinute;
         int maxMultiple = (totalMinutes - minute) / delta;
         minute += maxMultiple * delta;
-      } else {
-        previousAcres.put(DataUtility.matrixToString(world), minute);
       }
 
-      Acre[][] newWorld = new Acre[world.length][world[0].length];
-      for (int x = 0; x < world.length; x++) {
-        for (int y = 0; y < world[0].length; y++) {
-          switch (world[x][y]) {
+      ByteGrid newWorld = world.emptyCopy();
+      for (int y = world.getMinY(); y <= world.getMaxY(); y++) {
+        for (int x = world.getMinX(); x <= world.getMaxX(); x++) {
+          Acre newAcre;
+          switch (ACRES[world.get(x, y)]) {
             case OPEN_GROUND:
-              newWorld[x][y] =
+              newAcre =
                   countSurrounding(world, x, y, Acre.TREES) >= 3 ? Acre.TREES : Acre.OPEN_GROUND;
               break;
             case TREES:
-              newWorld[x][y] =
+              newAcre =
                   countSurrounding(world, x, y, Acre.LUMBERYARD) >= 3
                       ? Acre.LUMBERYARD
                       : Acre.TREES;
               break;
-            case LUMBERYARD:
-              newWorld[x][y] =
+            default: // case LUMBERYARD:
+              newAcre =
                   (countSurrounding(world, x, y, Acre.LUMBERYARD) > 0
                           && countSurrounding(world, x, y, Acre.TREES) > 0)
                       ? Acre.LUMBERYARD
                       : Acre.OPEN_GROUND;
               break;
           }
+          newWorld.set(x, y, newAcre.getValue());
         }
       }
 
       world = newWorld;
+      generations++;
     }
-    
+
+    SolverMetrics.count("generations", generations);
     return world;
   }
 }
@@ -5,7 +5,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
-public class Day19 {
+public class Day19 implements Solver<Day19.Program> {
 
   private static Day16.Op getOp(String instruction) {
     for (Day16.Op op : Day16.Op.values()) {
@@ -17,7 +17,7 @@ public class Day19 {
     return null;
   }
 
-  private static class Instruction {
+  static class Instruction {
     public final Day16.Op op;
     public final int a, b, c;
 
@@ -30,13 +30,6 @@ public class Day19 {
       c = args[2];
     }
 
-    void perform(int[] registers) {
-      int valueA = (op.typeA == Day16.InputType.REGISTER) ? registers[a] : a;
-      int valueB = (op.typeB == Day16.InputType.REGISTER) ? registers[b] : b;
-
-      registers[c] = op.function.perform(valueA, valueB);
-    }
-
     @Override
     public String toString() {
       switch (op) {
@@ -89,15 +82,18 @@ public class Day19 {
     }
   }
 
-  private static int executeProgram(
-      List<Instruction> instructions, int boundToRegister, int register0) {
+  static CompiledProgram compile(List<Instruction> instructions, int boundToRegister) {
+    CompiledProgram compiled = new CompiledProgram(boundToRegister);
+    for (Instruction instruction : instructions) {
+      compiled.add(instruction.op, instruction.a, instruction.b, instruction.c);
+    }
+    return compiled;
+  }
+
+  static int executeProgram(CompiledProgram program, int register0) {
     int[] registers = new int[NUM_REGISTERS];
     registers[0] = register0;
-    for (int i = 0; i >= 0 && i < instructions.size(); i++) {
-      registers[boundToRegister] = i;
-      instructions.get(i).perform(registers);
-      i = registers[boundToRegister];
-    }
+    SolverMetrics.count("instructions", program.run(registers));
     return registers[0];
   }
 
@@ -120,19 +116,41 @@ public class Day19 {
   private static final int NUM_REGISTERS = 6;
   private static final int PART_2_REGISTER_1 = 10551300; // Determined from analysis
 
+  static class Program {
+    public final int boundToRegister;
+    public final List<Instruction> instructions;
+    public final CompiledProgram compiled;
+
+    public Program(int boundToRegister, List<Instruction> instructions) {
+      this.boundToRegister = boundToRegister;
+      this.instructions = instructions;
+      compiled = compile(instructions, boundToRegister);
+    }
+  }
+
   public static void main(String[] args) throws IOException {
-    String[] lines = FileUtility.fileToString("input/19.txt").split("\n");
+    Solvers.solveAndOutput("19", new Day19());
+  }
+
+  @Override
+  public Program parse(String filepath) throws IOException {
+    String[] lines = FileUtility.fileToLines(filepath);
     final int boundToRegister = ParseUtility.extractInts(lines[0])[0];
     List<Instruction> instructions =
         Arrays.stream(lines).skip(1).map(Instruction::new).collect(Collectors.toList());
+    return new Program(boundToRegister, instructions);
+  }
 
-    // Part one
-    FileUtility.printAndOutput(executeProgram(instructions, boundToRegister, 0), "output/19a.txt");
+  @Override
+  public Object partOne(Program program) {
+    return executeProgram(program.compiled, 0);
+  }
 
-    // Part two
+  @Override
+  public Object partTwo(Program program) {
     // After analysis, it appears the program is summing all of the factors of N, where N is a value
     // determined at the start of the program and placed in register 1.
     // See input/19-analysis.txt for analysis
-    FileUtility.printAndOutput(sumFactors(PART_2_REGISTER_1), "output/19b.txt");
+    return sumFactors(PART_2_REGISTER_1);
   }
 }
@@ -4,9 +4,9 @@ import java.io.IOException;
 import java.util.HashSet;
 import java.util.Set;
 
-public class Day21 {
+public class Day21 implements Solver<Void> {
 
-  private static int getLastUniqueValueOfR2(int numIterations) {
+  static int getLastUniqueValueOfR2(int numIterations) {
     Set<Integer> valuesOfR2 = new HashSet<>();
     int latestUniqueValue = -1;
     int r1;
@@ -35,21 +35,33 @@ public class Day21 {
   }
 
   public static void main(String[] args) throws IOException {
-    // See input/21-analysis.txt for analysis of the assembly code.
-    // - The purpose of the program seems to be generating random values and storing them in R2
-    // - The outer loop ends when the value of R2 generated during a given iteration equals R0
-    // - R2 is always forced to be less than 2^24
-    // Basically, the question of "how many operations will the program take?" boils down to the
-    // question of how many times the outer loop will run. Since there are only 2^24 values of R2
-    // and every variable in the loop is dependent on the value of R2, all of the values it takes on
-    // must appear within the first 2^24 iterations.
-
-    // Part one
+    Solvers.solveAndOutput("21", new Day21());
+  }
+
+  /** The program is translated by hand into getLastUniqueValueOfR2, so the input is unused. */
+  @Override
+  public Void parse(String filepath) {
+    return null;
+  }
+
+  // See input/21-analysis.txt for analysis of the assembly code.
+  // - The purpose of the program seems to be generating random values and storing them in R2
+  // - The outer loop ends when the value of R2 generated during a given iteration equals R0
+  // - R2 is always forced to be less than 2^24
+  // Basically, the question of "how many operations will the program take?" boils down to the
+  // question of how many times the outer loop will run. Since there are only 2^24 values of R2
+  // and every variable in the loop is dependent on the value of R2, all of the values it takes on
+  // must appear within the first 2^24 iterations.
+
+  @Override
+  public Object partOne(Void input) {
     // The solution is the very first value of R2 produced by the outer loop
-    FileUtility.printAndOutput(getLastUniqueValueOfR2(1), "output/21a.txt");
+    return getLastUniqueValueOfR2(1);
+  }
 
-    // Part two
+  @Override
+  public Object partTwo(Void input) {
     // The solution is the latest unique value of R2 produced during the first 2^24 iterations.
-    FileUtility.printAndOutput(getLastUniqueValueOfR2(1 << 24), "output/21b.txt");
+    return getLastUniqueValueOfR2(1 << 24);
   }
 }
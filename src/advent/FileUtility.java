@@ -2,6 +2,7 @@ package advent;
 
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
+import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
@@ -24,12 +25,26 @@ public class FileUtility {
     return builder.toString();
   }
 
+  /**
+   * Drop-in replacement for {@code fileToString(filepath).split("\n")} that memory-maps the file
+   * instead of building an intermediate copy of its contents. Like split, it drops empty lines at
+   * the end of the file.
+   */
+  public static String[] fileToLines(String filepath) throws IOException {
+    return LineSource.map(filepath).toStringArray();
+  }
+
   public static void printAndOutput(Object output, String filepath) throws IOException {
     System.out.println(output);
     stringToTextFile(output.toString(), filepath);
   }
 
   public static void stringToTextFile(String output, String filepath) throws IOException {
+    File parent = new File(filepath).getAbsoluteFile().getParentFile();
+    if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+      throw new IOException("Could not create directory " + parent);
+    }
+
     BufferedWriter writer = new BufferedWriter(new FileWriter(filepath));
 
     writer.write(output);
@@ -0,0 +1,472 @@
+package advent;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Day 1, part two, over a stream of frequency changes that may never end: applies each change as it
+ * arrives and reports whether the resulting frequency has been seen before, within a fixed memory
+ * budget.
+ *
+ * <p>Seen frequencies first go into an exact in-memory set. Once it fills up, they are sorted and
+ * spilled to a run file on disk. Runs are merged in tiers: a spill makes a run of tier 0, and
+ * once a tier has {@value #MERGE_FANOUT} runs they are merged into one run of the next tier, so
+ * every frequency is rewritten once per tier, and the tiers grow logarithmically with the stream.
+ *
+ * <p>Each run keeps a sparse in-memory index of every {@code stride}th value, starting at {@value
+ * #BLOCK_SIZE}. The in-memory set and the indexes together hold at most {@code memoryBudget}
+ * frequencies (give or take one index entry per run): a seventh of the budget goes to the
+ * indexes, and whenever they outgrow it, the stride doubles and every index drops every other
+ * entry. Lookups then binary search a longer stretch of the run on disk, one read per halving.
+ *
+ * <p>A Bloom filter in front of all of this answers almost every new frequency without touching
+ * the disk, so only actual repeats (and rare false positives) pay for a lookup. It takes a further
+ * 10 bytes per budgeted frequency, and is sized for 8 times the budget; beyond that its false
+ * positive rate, and so the number of disk lookups, climbs, but answers stay exact.
+ *
+ * <p>As a command, reads changes from stdin, one per line, and prints each repeat as soon as it is
+ * seen: {@code [--budget N] [--spill DIR] [--all]}. Without {@code --all} it stops at the first.
+ */
+public class FrequencyMonitor implements Closeable {
+
+  private static final int BLOCK_SIZE = 512;
+  private static final int MERGE_FANOUT = 8;
+  private static final int BLOOM_BITS_PER_ENTRY = 10;
+  private static final int BLOOM_HASHES = 7;
+
+  /** A sorted file of frequencies, with every stride-th value kept in memory. */
+  private static class Run {
+    public final Path path;
+    public final FileChannel channel;
+    public final int tier;
+    public final long size;
+    public final long last;
+
+    /* index[k] is the value at position k * stride, for the monitor's current stride */
+    public long[] index;
+
+    public Run(Path path, int tier, long size, long[] index, long last) throws IOException {
+      this.path = path;
+      this.channel = FileChannel.open(path, StandardOpenOption.READ);
+      this.tier = tier;
+      this.size = size;
+      this.index = index;
+      this.last = last;
+    }
+
+    /** Keeps every other index entry, for a stride twice as long. */
+    public void thinIndex() {
+      long[] thinned = new long[(index.length + 1) / 2];
+      for (int k = 0; k < thinned.length; k++) {
+        thinned[k] = index[2 * k];
+      }
+      index = thinned;
+    }
+
+    public boolean contains(long value, long stride, ByteBuffer buffer) throws IOException {
+      if (value < index[0] || value > last) {
+        return false;
+      }
+
+      int entry = Arrays.binarySearch(index, value);
+      if (entry >= 0) {
+        return true;
+      }
+      entry = -entry - 2; // The stretch whose first value is just below
+
+      // Narrow the stretch down to a block by reading single values, then search that in memory
+      long low = entry * stride + 1;
+      long high = Math.min((entry + 1) * stride, size) - 1;
+      while (high - low + 1 > BLOCK_SIZE) {
+        long middle = (low + high) >>> 1;
+        long candidate = read(middle, 1, buffer).getLong(0);
+        if (candidate < value) {
+          low = middle + 1;
+        } else if (candidate > value) {
+          high = middle - 1;
+        } else {
+          return true;
+        }
+      }
+
+      int length = (int) (high - low + 1);
+      read(low, length, buffer);
+      int lowInBlock = 0;
+      int highInBlock = length - 1;
+      while (lowInBlock <= highInBlock) {
+        int middle = (lowInBlock + highInBlock) >>> 1;
+        long candidate = buffer.getLong(middle * Long.BYTES);
+        if (candidate < value) {
+          lowInBlock = middle + 1;
+        } else if (candidate > value) {
+          highInBlock = middle - 1;
+        } else {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    /** Reads {@code length} values, starting at position {@code start}, into {@code buffer}. */
+    private ByteBuffer read(long start, int length, ByteBuffer buffer) throws IOException {
+      buffer.clear().limit(length * Long.BYTES);
+      long position = start * Long.BYTES;
+      while (buffer.hasRemaining()) {
+        if (channel.read(buffer, position + buffer.position()) < 0) {
+          throw new EOFException("Truncated spill file " + path);
+        }
+      }
+      return buffer;
+    }
+  }
+
+  private final int recentCapacity;
+  private final int indexBudget;
+  private final Path spillDirectory;
+
+  private final long[] bloom;
+  private final long bloomBits;
+
+  /* Open-addressing set of the frequencies not yet spilled; FREE marks empty slots */
+  private static final long FREE = Long.MIN_VALUE;
+  private final long[] recent;
+  private int recentSize = 0;
+
+  private final List<Run> runs = new ArrayList<>();
+  private final ByteBuffer blockBuffer = ByteBuffer.allocate(BLOCK_SIZE * Long.BYTES);
+  private long stride = BLOCK_SIZE;
+  private long indexSize = 0;
+  private int nextRunId = 0;
+
+  private long frequency = 0;
+  private long changes = 0;
+
+  public static void main(String[] args) throws IOException {
+    int budget = 1 << 20;
+    Path spillDirectory = null;
+    boolean reportAll = false;
+    for (int i = 0; i < args.length; i++) {
+      switch (args[i]) {
+        case "--budget":
+          budget = Integer.parseInt(args[++i]);
+          break;
+        case "--spill":
+          spillDirectory = Paths.get(args[++i]);
+          break;
+        case "--all":
+          reportAll = true;
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown argument " + args[i]);
+      }
+    }
+    boolean temporarySpillDirectory = spillDirectory == null;
+    if (temporarySpillDirectory) {
+      spillDirectory = Files.createTempDirectory("frequencies");
+    }
+
+    BufferedReader in =
+        new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+    int[] change = new int[1];
+    try (FrequencyMonitor monitor = new FrequencyMonitor(budget, spillDirectory)) {
+      String line;
+      while ((line = in.readLine()) != null) {
+        if (ParseUtility.extractInts(line, change) == 0) {
+          continue;
+        }
+
+        if (monitor.accept(change[0])) {
+          System.out.println(
+              "Repeated frequency "
+                  + monitor.getFrequency()
+                  + " after "
+                  + monitor.getChangeCount()
+                  + " changes");
+          System.out.flush();
+          if (!reportAll) {
+            break;
+          }
+        }
+      }
+    } finally {
+      if (temporarySpillDirectory) {
+        Files.deleteIfExists(spillDirectory);
+      }
+    }
+  }
+
+  /**
+   * @param memoryBudget how many frequencies to hold in memory, counting index entries (at least 2)
+   * @param spillDirectory where run files are written; they are deleted on close
+   */
+  public FrequencyMonitor(int memoryBudget, Path spillDirectory) throws IOException {
+    if (memoryBudget < 2) {
+      throw new IllegalArgumentException("Memory budget must be at least 2: " + memoryBudget);
+    }
+    indexBudget = Math.max(1, memoryBudget / 7);
+    recentCapacity = memoryBudget - indexBudget;
+    this.spillDirectory = Files.createDirectories(spillDirectory);
+
+    bloomBits = Math.max(64, 8L * memoryBudget * BLOOM_BITS_PER_ENTRY);
+    bloom = new long[(int) ((bloomBits + 63) / 64)];
+
+    // At most half full, so probe sequences stay short
+    recent = new long[Integer.highestOneBit(Math.max(2 * recentCapacity - 1, 8)) << 1];
+    Arrays.fill(recent, FREE);
+
+    add(frequency);
+  }
+
+  /** Applies {@code change}, and returns true if the new frequency has been seen before. */
+  public boolean accept(long change) throws IOException {
+    frequency += change;
+    changes++;
+
+    if (mightContain(frequency) && contains(frequency)) {
+      return true;
+    }
+    add(frequency);
+    return false;
+  }
+
+  public long getFrequency() {
+    return frequency;
+  }
+
+  public long getChangeCount() {
+    return changes;
+  }
+
+  /** Returns how many sorted runs currently live on disk. */
+  public int getRunCount() {
+    return runs.size();
+  }
+
+  @Override
+  public void close() throws IOException {
+    deleteRuns();
+  }
+
+  private void deleteRuns() throws IOException {
+    for (Run run : runs) {
+      run.channel.close();
+      Files.deleteIfExists(run.path);
+    }
+    runs.clear();
+    indexSize = 0;
+  }
+
+  private boolean contains(long value) throws IOException {
+    if (recentContains(value)) {
+      return true;
+    }
+    for (Run run : runs) {
+      if (run.contains(value, stride, blockBuffer)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void add(long value) throws IOException {
+    addToBloom(value);
+    if (value == FREE) {
+      // Can't live in the open-addressing table, so goes straight to disk
+      writeRun(new long[] {value});
+    } else {
+      recentAdd(value);
+    }
+
+    if (recentSize >= recentCapacity) {
+      spill();
+    }
+  }
+
+  private boolean recentContains(long value) {
+    if (value == FREE) {
+      return false;
+    }
+
+    int mask = recent.length - 1;
+    for (int i = slotOf(value, mask); recent[i] != FREE; i = (i + 1) & mask) {
+      if (recent[i] == value) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void recentAdd(long value) {
+    int mask = recent.length - 1;
+    int i = slotOf(value, mask);
+    while (recent[i] != FREE) {
+      i = (i + 1) & mask;
+    }
+    recent[i] = value;
+    recentSize++;
+  }
+
+  private static int slotOf(long value, int mask) {
+    return (int) mix(value) & mask;
+  }
+
+  private void spill() throws IOException {
+    long[] values = new long[recentSize];
+    int count = 0;
+    for (long value : recent) {
+      if (value != FREE) {
+        values[count++] = value;
+      }
+    }
+    Arrays.sort(values);
+    writeRun(values);
+
+    Arrays.fill(recent, FREE);
+    recentSize = 0;
+  }
+
+  /** Writes a run of tier 0, then merges any tier that this fills. */
+  private void writeRun(long[] sortedValues) throws IOException {
+    Path path = nextRunPath();
+    try (DataOutputStream out =
+        new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+      for (long value : sortedValues) {
+        out.writeLong(value);
+      }
+    }
+
+    long[] index = new long[(int) ((sortedValues.length + stride - 1) / stride)];
+    for (int k = 0; k < index.length; k++) {
+      index[k] = sortedValues[(int) (k * stride)];
+    }
+    addRun(new Run(path, 0, sortedValues.length, index, sortedValues[sortedValues.length - 1]));
+  }
+
+  private void addRun(Run run) throws IOException {
+    runs.add(run);
+    indexSize += run.index.length;
+    while (indexSize > indexBudget && indexSize > runs.size()) {
+      stride *= 2;
+      indexSize = 0;
+      for (Run other : runs) {
+        other.thinIndex();
+        indexSize += other.index.length;
+      }
+    }
+
+    List<Run> tier = new ArrayList<>();
+    for (Run other : runs) {
+      if (other.tier == run.tier) {
+        tier.add(other);
+      }
+    }
+    if (tier.size() >= MERGE_FANOUT) {
+      mergeRuns(tier, run.tier + 1);
+    }
+  }
+
+  /** Streams {@code tier} into one run, keeping memory proportional to the number of runs. */
+  private void mergeRuns(List<Run> tier, int nextTier) throws IOException {
+    List<DataInputStream> inputs = new ArrayList<>(tier.size());
+    // {value, input index}, smallest value first
+    PriorityQueue<long[]> heads = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+    long[] remaining = new long[tier.size()];
+    long total = 0;
+    for (Run run : tier) {
+      DataInputStream in =
+          new DataInputStream(new BufferedInputStream(Files.newInputStream(run.path)));
+      int input = inputs.size();
+      inputs.add(in);
+      heads.add(new long[] {in.readLong(), input});
+      remaining[input] = run.size - 1;
+      total += run.size;
+    }
+
+    Path path = nextRunPath();
+    long[] index = new long[(int) ((total + stride - 1) / stride)];
+    long last = 0;
+    long written = 0;
+    try (DataOutputStream out =
+        new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+      while (!heads.isEmpty()) {
+        long[] head = heads.remove();
+        last = head[0];
+        if (written % stride == 0) {
+          index[(int) (written / stride)] = last;
+        }
+        out.writeLong(last);
+        written++;
+
+        int input = (int) head[1];
+        if (remaining[input] > 0) {
+          remaining[input]--;
+          head[0] = inputs.get(input).readLong();
+          heads.add(head);
+        }
+      }
+    } finally {
+      for (DataInputStream in : inputs) {
+        in.close();
+      }
+    }
+
+    for (Run run : tier) {
+      run.channel.close();
+      Files.deleteIfExists(run.path);
+      indexSize -= run.index.length;
+    }
+    runs.removeAll(tier);
+    addRun(new Run(path, nextTier, total, index, last));
+  }
+
+  private Path nextRunPath() {
+    return spillDirectory.resolve("run-" + nextRunId++ + ".bin");
+  }
+
+  private boolean mightContain(long value) {
+    // Double hashing: the i-th bit is (h1 + i * h2) mod m
+    long h1 = mix(value);
+    long h2 = mix(h1) | 1;
+    for (int i = 0; i < BLOOM_HASHES; i++) {
+      long bit = Long.remainderUnsigned(h1 + i * h2, bloomBits);
+      if ((bloom[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void addToBloom(long value) {
+    long h1 = mix(value);
+    long h2 = mix(h1) | 1;
+    for (int i = 0; i < BLOOM_HASHES; i++) {
+      long bit = Long.remainderUnsigned(h1 + i * h2, bloomBits);
+      bloom[(int) (bit >>> 6)] |= 1L << bit;
+    }
+  }
+
+  /** SplitMix64's finalizer: every input bit affects every output bit. */
+  private static long mix(long value) {
+    value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+    value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+    return value ^ (value >>> 31);
+  }
+}
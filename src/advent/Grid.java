@@ -0,0 +1,110 @@
+package advent;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Base class for fixed-size two-dimensional grids stored in a single flat array in row-major order,
+ * so that scanning a row walks memory sequentially. Coordinates are offset by an origin of {@code
+ * (minX, minY)}, which lets puzzles address cells by their own (possibly large or negative)
+ * coordinates.
+ */
+public abstract class Grid {
+  protected final int minX;
+  protected final int minY;
+  protected final int width;
+  protected final int height;
+
+  protected Grid(int minX, int minY, int width, int height) {
+    if (width <= 0 || height <= 0) {
+      throw new IllegalArgumentException("Grid must be non-empty: " + width + "x" + height);
+    }
+
+    this.minX = minX;
+    this.minY = minY;
+    this.width = width;
+    this.height = height;
+  }
+
+  public int getMinX() {
+    return minX;
+  }
+
+  public int getMaxX() {
+    return minX + width - 1;
+  }
+
+  public int getMinY() {
+    return minY;
+  }
+
+  public int getMaxY() {
+    return minY + height - 1;
+  }
+
+  public int getWidth() {
+    return width;
+  }
+
+  public int getHeight() {
+    return height;
+  }
+
+  public int size() {
+    return width * height;
+  }
+
+  public boolean isInBounds(int x, int y) {
+    // A single unsigned comparison per axis also rejects coordinates below the origin
+    return Integer.compareUnsigned(x - minX, width) < 0
+        && Integer.compareUnsigned(y - minY, height) < 0;
+  }
+
+  /** Returns the position of {@code (x, y)} in the underlying array. Does not check bounds. */
+  public int indexOf(int x, int y) {
+    return (y - minY) * width + (x - minX);
+  }
+
+  public int xOf(int index) {
+    return minX + index % width;
+  }
+
+  public int yOf(int index) {
+    return minY + index / width;
+  }
+
+  /** Calls {@code action} with the index of each in-bounds cell among the 8 surrounding (x, y). */
+  public void forEachNeighbor(int x, int y, IntConsumer action) {
+    int xStart = Math.max(x - 1, minX);
+    int xEnd = Math.min(x + 1, getMaxX());
+    int yStart = Math.max(y - 1, minY);
+    int yEnd = Math.min(y + 1, getMaxY());
+
+    for (int currentY = yStart; currentY <= yEnd; currentY++) {
+      int rowStart = (currentY - minY) * width - minX;
+      for (int currentX = xStart; currentX <= xEnd; currentX++) {
+        if (currentX != x || currentY != y) {
+          action.accept(rowStart + currentX);
+        }
+      }
+    }
+  }
+
+  /** Returns the character used to draw the cell at {@code index}. */
+  protected abstract char getIcon(int index);
+
+  /** Draws the grid one row per line, top row first. */
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder((width + 1) * height);
+    for (int y = 0; y < height; y++) {
+      int rowStart = y * width;
+      for (int x = 0; x < width; x++) {
+        builder.append(getIcon(rowStart + x));
+      }
+      if (y < height - 1) {
+        builder.append('\n');
+      }
+    }
+    return builder.toString();
+  }
+}
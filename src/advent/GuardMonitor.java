@@ -0,0 +1,187 @@
+package advent;
+
+import advent.Day04.Guard;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Day 4 over a continuous, out-of-order stream of guard log events: both strategies' answers can
+ * be read at any time, in O(1), without re-sorting the log.
+ *
+ * <p>Events are buffered in time order until their shift is closed, which happens once {@code
+ * lateness} later shifts have begun (or on {@link #flush()}). The shift's naps are then folded
+ * into a 60-bit bitmap of the minutes asleep, which updates its guard's per-minute counters, and
+ * the guards leading each strategy are updated alongside. Events that belong to an already closed
+ * shift are rejected, so {@code lateness} should cover how far out of order events can arrive.
+ *
+ * <p>A shift only takes the events in its own night's midnight hour (see {@link
+ * Day04#isDuringShift}). Later events wait for their own shift to begin, and if it still hasn't
+ * when they are due to be closed, closing fails without changing any statistics.
+ *
+ * <p>As a command, reads events from stdin, one per line, and prints both answers whenever they
+ * change: {@code [--lateness SHIFTS]}, where the default waits for the whole log.
+ */
+public class GuardMonitor {
+
+  private final int lateness;
+
+  /* Packed events (see Day04.parseEvent) of shifts not yet closed */
+  private final TreeSet<Long> pending = new TreeSet<>();
+  private int pendingShifts = 0;
+
+  /* Time key of the earliest event that may still arrive, and the start of the last closed shift */
+  private long closedBefore = Long.MIN_VALUE;
+  private long lastClosedShift = -1;
+
+  private final Map<Integer, Guard> guards = new HashMap<>();
+  private Guard sleepiestGuard = null;
+  private Guard mostFrequentlyAsleepGuard = null;
+  private long closedShifts = 0;
+
+  public static void main(String[] args) throws IOException {
+    int lateness = Integer.MAX_VALUE;
+    for (int i = 0; i < args.length; i++) {
+      switch (args[i]) {
+        case "--lateness":
+          lateness = Integer.parseInt(args[++i]);
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown argument " + args[i]);
+      }
+    }
+
+    BufferedReader in =
+        new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+    GuardMonitor monitor = new GuardMonitor(lateness);
+    String answers = monitor.getAnswers();
+    String line;
+    while ((line = in.readLine()) != null) {
+      if (!line.isEmpty()) {
+        monitor.accept(Day04.parseEvent(line));
+        answers = printIfChanged(monitor, answers);
+      }
+    }
+    monitor.flush();
+    printIfChanged(monitor, answers);
+  }
+
+  private static String printIfChanged(GuardMonitor monitor, String previousAnswers) {
+    String answers = monitor.getAnswers();
+    if (!answers.equals(previousAnswers)) {
+      System.out.println(answers);
+    }
+    return answers;
+  }
+
+  /** @param lateness how many later shifts may begin before a shift is closed */
+  public GuardMonitor(int lateness) {
+    if (lateness < 0) {
+      throw new IllegalArgumentException("Lateness must not be negative: " + lateness);
+    }
+    this.lateness = lateness;
+  }
+
+  /** Buffers a packed event, closing any shifts this makes old enough. */
+  public void accept(long event) {
+    if (Day04.getTimeKey(event) < closedBefore
+        || (lastClosedShift >= 0
+            && Day04.getType(event) != Day04.BEGINS_SHIFT
+            && Day04.isDuringShift(lastClosedShift, event))) {
+      throw new IllegalArgumentException("Event arrived after its shift was closed");
+    }
+
+    if (pending.add(event) && Day04.getType(event) == Day04.BEGINS_SHIFT) {
+      pendingShifts++;
+      // Only shifts followed by another have all their events between known boundaries
+      while (pendingShifts - 1 > lateness) {
+        closeFirstShift();
+      }
+    }
+  }
+
+  /** Closes every buffered shift, e.g. at the end of a log. */
+  public void flush() {
+    while (pendingShifts > 0) {
+      closeFirstShift();
+    }
+    if (!pending.isEmpty()) {
+      throw new IllegalStateException("Events before any shift began");
+    }
+  }
+
+  /** Strategy 1: the guard with the most minutes asleep, or null before any shift closes. */
+  public Guard getSleepiestGuard() {
+    return sleepiestGuard;
+  }
+
+  /** Strategy 2: the guard most frequently asleep on the same minute, or null likewise. */
+  public Guard getMostFrequentlyAsleepGuard() {
+    return mostFrequentlyAsleepGuard;
+  }
+
+  public long getClosedShiftCount() {
+    return closedShifts;
+  }
+
+  private String getAnswers() {
+    if (sleepiestGuard == null) {
+      return "No shifts closed";
+    }
+    return String.format(
+        "Strategy 1: %d, strategy 2: %d",
+        sleepiestGuard.getId() * sleepiestGuard.getSleepiestMinute(),
+        mostFrequentlyAsleepGuard.getId() * mostFrequentlyAsleepGuard.getSleepiestMinute());
+  }
+
+  private void closeFirstShift() {
+    if (Day04.getType(pending.first()) != Day04.BEGINS_SHIFT) {
+      throw new IllegalStateException("Events before any shift began");
+    }
+    long begin = pending.first();
+
+    // Naps are as in Day04.initializeGuards: from falling asleep up to the next wake up. Nothing
+    // is removed until the shift's events are known, so that failing leaves the monitor as it was.
+    List<Long> events = new ArrayList<>();
+    long sleepBitmap = 0;
+    int sleepStart = -1;
+    for (long event : pending.tailSet(begin, false)) {
+      if (Day04.getType(event) == Day04.BEGINS_SHIFT || !Day04.isDuringShift(begin, event)) {
+        break; // Events of later shifts, whether or not they have begun yet
+      }
+      events.add(event);
+      int minute = Day04.getMinute(event);
+      if (Day04.getType(event) == Day04.FALLS_ASLEEP) {
+        sleepStart = minute;
+      } else if (sleepStart >= 0 && minute > sleepStart) {
+        sleepBitmap |= (1L << minute) - (1L << sleepStart);
+      }
+    }
+
+    pending.remove(begin);
+    pending.removeAll(events);
+    pendingShifts--;
+    long last = events.isEmpty() ? begin : events.get(events.size() - 1);
+    closedBefore = Day04.getTimeKey(last) + 1;
+    lastClosedShift = begin;
+
+    Guard guard = Day04.getGuard(guards, Day04.getGuardId(begin));
+    guard.markSleep(sleepBitmap);
+    closedShifts++;
+
+    // Guards' counts only grow, so only this guard can have overtaken the leaders
+    if (sleepiestGuard == null || guard.getMinutesAsleep() > sleepiestGuard.getMinutesAsleep()) {
+      sleepiestGuard = guard;
+    }
+    if (mostFrequentlyAsleepGuard == null
+        || guard.getMaxFrequency() > mostFrequentlyAsleepGuard.getMaxFrequency()) {
+      mostFrequentlyAsleepGuard = guard;
+    }
+  }
+}
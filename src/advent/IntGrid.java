@@ -0,0 +1,47 @@
+package advent;
+
+import java.util.Arrays;
+
+/** {@link Grid} of ints, e.g. counters. Cells are drawn as '.' for 0, digits 1-9, and '+' above. */
+public class IntGrid extends Grid {
+  private final int[] cells;
+
+  public IntGrid(int minX, int minY, int width, int height) {
+    super(minX, minY, width, height);
+    this.cells = new int[width * height];
+  }
+
+  public int get(int x, int y) {
+    return cells[indexOf(x, y)];
+  }
+
+  public void set(int x, int y, int value) {
+    cells[indexOf(x, y)] = value;
+  }
+
+  /** Adds one to the cell at (x, y) and returns its new value. */
+  public int increment(int x, int y) {
+    return ++cells[indexOf(x, y)];
+  }
+
+  public int get(int index) {
+    return cells[index];
+  }
+
+  public void set(int index, int value) {
+    cells[index] = value;
+  }
+
+  public void fill(int value) {
+    Arrays.fill(cells, value);
+  }
+
+  @Override
+  protected char getIcon(int index) {
+    int value = cells[index];
+    if (value == 0) {
+      return '.';
+    }
+    return value > 0 && value < 10 ? (char) ('0' + value) : '+';
+  }
+}
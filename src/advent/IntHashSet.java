@@ -0,0 +1,107 @@
+package advent;
+
+import java.util.Arrays;
+
+/**
+ * A set of primitive ints, using open addressing with linear probing, for hot paths where a {@code
+ * HashSet<Integer>} would box every element. Slots holding 0 are free, so 0 itself is tracked
+ * separately.
+ */
+public class IntHashSet {
+  private static final int FREE = 0;
+
+  /* 2^32 / golden ratio: spreads consecutive values across the table (Fibonacci hashing) */
+  private static final int HASH_MULTIPLIER = 0x9E3779B9;
+
+  private int[] slots;
+  private int shift;
+  private int size = 0;
+  private boolean containsFree = false;
+
+  public IntHashSet() {
+    this(16);
+  }
+
+  /** Sizes the table so that {@code expectedSize} elements fit without resizing. */
+  public IntHashSet(int expectedSize) {
+    int capacity = Integer.highestOneBit(Math.max(2 * expectedSize - 1, 16)) << 1;
+    slots = new int[capacity];
+    shift = Integer.numberOfLeadingZeros(capacity) + 1;
+  }
+
+  /** Returns true if {@code value} was not already in the set. */
+  public boolean add(int value) {
+    if (value == FREE) {
+      if (containsFree) {
+        return false;
+      }
+      containsFree = true;
+      size++;
+      return true;
+    }
+
+    int mask = slots.length - 1;
+    for (int i = indexOf(value); ; i = (i + 1) & mask) {
+      int slot = slots[i];
+      if (slot == value) {
+        return false;
+      }
+      if (slot == FREE) {
+        slots[i] = value;
+        // Keep the load factor at or below one half, so probe sequences stay short
+        if (++size > slots.length / 2) {
+          resize();
+        }
+        return true;
+      }
+    }
+  }
+
+  public boolean contains(int value) {
+    if (value == FREE) {
+      return containsFree;
+    }
+
+    int mask = slots.length - 1;
+    for (int i = indexOf(value); ; i = (i + 1) & mask) {
+      int slot = slots[i];
+      if (slot == value) {
+        return true;
+      }
+      if (slot == FREE) {
+        return false;
+      }
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public void clear() {
+    Arrays.fill(slots, FREE);
+    size = 0;
+    containsFree = false;
+  }
+
+  private int indexOf(int value) {
+    return (value * HASH_MULTIPLIER) >>> shift;
+  }
+
+  private void resize() {
+    int[] oldSlots = slots;
+    slots = new int[2 * oldSlots.length];
+    shift--;
+
+    int mask = slots.length - 1;
+    for (int value : oldSlots) {
+      if (value != FREE) {
+        int i = indexOf(value);
+        while (slots[i] != FREE) {
+          i = (i + 1) & mask;
+        }
+        slots[i] = value;
+      }
+    }
+  }
+}
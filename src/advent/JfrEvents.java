@@ -0,0 +1,113 @@
+package advent;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Emits an "advent.SolverPhase" JFR event for every measured solver phase, with the day, the phase
+ * and the bytes it allocated. The event type is defined at runtime through {@code
+ * jdk.jfr.EventFactory}, which is reached reflectively so that the code still compiles for, and
+ * runs on, Java 8; there every method here is a no-op.
+ *
+ * <p>To record: {@code java -XX:StartFlightRecording=filename=solve.jfr -cp out
+ * advent.SolverRunner}.
+ */
+class JfrEvents {
+
+  private static final Object FACTORY;
+  private static final Method NEW_EVENT;
+  private static final Method BEGIN;
+  private static final Method END;
+  private static final Method SET;
+  private static final Method SHOULD_COMMIT;
+  private static final Method COMMIT;
+
+  static {
+    Object factory = null;
+    Method newEvent = null;
+    Method begin = null;
+    Method end = null;
+    Method set = null;
+    Method shouldCommit = null;
+    Method commit = null;
+    try {
+      Class<?> annotationElementClass = Class.forName("jdk.jfr.AnnotationElement");
+      Constructor<?> annotationElement =
+          annotationElementClass.getConstructor(Class.class, Object.class);
+      List<Object> annotations =
+          Arrays.asList(
+              annotationElement.newInstance(Class.forName("jdk.jfr.Name"), "advent.SolverPhase"),
+              annotationElement.newInstance(Class.forName("jdk.jfr.Label"), "Solver Phase"),
+              annotationElement.newInstance(
+                  Class.forName("jdk.jfr.Category"), new String[] {"Advent of Code"}));
+
+      // Field order must match the indices used in commit()
+      Constructor<?> valueDescriptor =
+          Class.forName("jdk.jfr.ValueDescriptor").getConstructor(Class.class, String.class);
+      List<Object> fields =
+          Arrays.asList(
+              valueDescriptor.newInstance(String.class, "day"),
+              valueDescriptor.newInstance(String.class, "phase"),
+              valueDescriptor.newInstance(long.class, "allocatedBytes"));
+
+      Class<?> factoryClass = Class.forName("jdk.jfr.EventFactory");
+      factory =
+          factoryClass.getMethod("create", List.class, List.class)
+              .invoke(null, annotations, fields);
+      newEvent = factoryClass.getMethod("newEvent");
+
+      Class<?> eventClass = Class.forName("jdk.jfr.Event");
+      begin = eventClass.getMethod("begin");
+      end = eventClass.getMethod("end");
+      set = eventClass.getMethod("set", int.class, Object.class);
+      shouldCommit = eventClass.getMethod("shouldCommit");
+      commit = eventClass.getMethod("commit");
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      // No JFR (e.g. Java 8): events are silently skipped
+      factory = null;
+    }
+
+    FACTORY = factory;
+    NEW_EVENT = newEvent;
+    BEGIN = begin;
+    END = end;
+    SET = set;
+    SHOULD_COMMIT = shouldCommit;
+    COMMIT = commit;
+  }
+
+  /** Starts timing a new event. Returns null if JFR is unavailable. */
+  static Object begin() {
+    if (FACTORY == null) {
+      return null;
+    }
+
+    try {
+      Object event = NEW_EVENT.invoke(FACTORY);
+      BEGIN.invoke(event);
+      return event;
+    } catch (ReflectiveOperationException e) {
+      return null;
+    }
+  }
+
+  static void commit(Object event, String day, String phase, long allocatedBytes) {
+    if (event == null) {
+      return;
+    }
+
+    try {
+      END.invoke(event);
+      if ((Boolean) SHOULD_COMMIT.invoke(event)) {
+        SET.invoke(event, 0, day);
+        SET.invoke(event, 1, phase);
+        SET.invoke(event, 2, allocatedBytes);
+        COMMIT.invoke(event);
+      }
+    } catch (ReflectiveOperationException e) {
+      // Losing an event is preferable to failing the solve
+    }
+  }
+}
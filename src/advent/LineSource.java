@@ -0,0 +1,188 @@
+package advent;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Memory-mapped view of a text file that hands out its lines lazily, without copying them onto the
+ * heap. Lines are exposed as {@link ByteSlice}s that point directly into the mapped file, so a line
+ * only becomes a {@link String} if a caller explicitly asks for one.
+ *
+ * <p>Line semantics match {@link FileUtility#fileToString(String)} followed by {@code split("\n")}:
+ * both "\n" and "\r\n" terminate a line, and empty lines at the end of the file are dropped
+ * (though an empty file has no lines at all, rather than one empty one). Input is assumed to be
+ * ASCII.
+ */
+public class LineSource implements Iterable<ByteSlice> {
+
+  // A single MappedByteBuffer can address at most Integer.MAX_VALUE bytes
+  private static final long MAX_REGION_SIZE = Integer.MAX_VALUE;
+
+  /* Mapped regions of the file, each ending on a line boundary (or at the end of the file) */
+  private final List<ByteBuffer> regions;
+  private final long size;
+
+  private LineSource(List<ByteBuffer> regions, long size) {
+    this.regions = regions;
+    this.size = size;
+  }
+
+  public static LineSource map(String filepath) throws IOException {
+    return map(filepath, MAX_REGION_SIZE);
+  }
+
+  /** Allows small region sizes, so that region boundaries can be exercised with small files. */
+  static LineSource map(String filepath, long maxRegionSize) throws IOException {
+    try (FileChannel channel = FileChannel.open(Paths.get(filepath), StandardOpenOption.READ)) {
+      long size = channel.size();
+      List<ByteBuffer> regions = new ArrayList<>();
+
+      long position = 0;
+      while (position < size) {
+        long regionSize = Math.min(maxRegionSize, size - position);
+        MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, regionSize);
+
+        // Shrink the region so that no line straddles two regions
+        if (position + regionSize < size) {
+          int end = (int) regionSize;
+          while (end > 0 && region.get(end - 1) != '\n') {
+            end--;
+          }
+          if (end == 0) {
+            throw new IOException("Line longer than " + maxRegionSize + " bytes in " + filepath);
+          }
+          regionSize = end;
+          region.limit(end);
+        }
+
+        regions.add(region);
+        position += regionSize;
+      }
+
+      // Drop trailing line terminators, and so any empty lines at the end, as split does
+      while (!regions.isEmpty()) {
+        ByteBuffer last = regions.get(regions.size() - 1);
+        int end = last.limit();
+        while (end > 0 && (last.get(end - 1) == '\n' || last.get(end - 1) == '\r')) {
+          end--;
+        }
+        if (end > 0) {
+          last.limit(end);
+          break;
+        }
+        regions.remove(regions.size() - 1);
+      }
+
+      // The mapping remains valid after the channel is closed
+      return new LineSource(regions, size);
+    }
+  }
+
+  /** Size of the underlying file in bytes. */
+  public long size() {
+    return size;
+  }
+
+  /**
+   * Returns read-only views of the raw bytes of the file, without its trailing line terminators.
+   * Every buffer but the last ends with a newline, so callers can scan each one independently.
+   */
+  public List<ByteBuffer> regions() {
+    List<ByteBuffer> views = new ArrayList<>(regions.size());
+    for (ByteBuffer region : regions) {
+      views.add(region.asReadOnlyBuffer());
+    }
+    return views;
+  }
+
+  /**
+   * Calls {@code action} once per line. The slice passed to the action is reused between calls, so
+   * it must be copied (e.g. via {@link ByteSlice#toString()}) if it is retained.
+   */
+  public void forEachLine(Consumer<? super ByteSlice> action) {
+    ByteSlice line = new ByteSlice();
+    for (ByteBuffer region : regions) {
+      int start = 0;
+      int limit = region.limit();
+      while (start < limit) {
+        int end = start;
+        while (end < limit && region.get(end) != '\n') {
+          end++;
+        }
+
+        line.reset(region, start, trimCarriageReturn(region, start, end));
+        action.accept(line);
+        start = end + 1;
+      }
+    }
+  }
+
+  /** Returns an iterator that yields a fresh (but still zero-copy) slice for every line. */
+  @Override
+  public Iterator<ByteSlice> iterator() {
+    return new Iterator<ByteSlice>() {
+      private int regionIndex = 0;
+      private int position = 0;
+
+      @Override
+      public boolean hasNext() {
+        while (regionIndex < regions.size()) {
+          if (position < regions.get(regionIndex).limit()) {
+            return true;
+          }
+          regionIndex++;
+          position = 0;
+        }
+        return false;
+      }
+
+      @Override
+      public ByteSlice next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+
+        ByteBuffer region = regions.get(regionIndex);
+        int start = position;
+        int end = start;
+        while (end < region.limit() && region.get(end) != '\n') {
+          end++;
+        }
+        position = end + 1;
+
+        ByteSlice line = new ByteSlice();
+        line.reset(region, start, trimCarriageReturn(region, start, end));
+        return line;
+      }
+    };
+  }
+
+  public Stream<ByteSlice> lines() {
+    return StreamSupport.stream(
+        Spliterators.spliteratorUnknownSize(
+            iterator(), Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE),
+        false);
+  }
+
+  /** Convenience for callers that need every line as a {@link String}. */
+  public String[] toStringArray() {
+    return lines().map(ByteSlice::toString).toArray(String[]::new);
+  }
+
+  private static int trimCarriageReturn(ByteBuffer region, int start, int end) {
+    return (end > start && region.get(end - 1) == '\r') ? end - 1 : end;
+  }
+}
@@ -1,26 +1,115 @@
 package advent;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class ParseUtility {
-  private static final Pattern INT_PATTERN = Pattern.compile("[+\\-]?\\d+");
-
-  public static List<Integer> extractIntegers(String s) {
-    List<Integer> integers = new ArrayList<>();
-    Matcher matcher = INT_PATTERN.matcher(s);
-    while (matcher.find()) {
-      integers.add(Integer.parseInt(matcher.group()));
+  /**
+   * Returns every integer in the string, where an integer is a run of digits optionally preceded by
+   * a single '+' or '-'.
+   */
+  public static List<Integer> extractIntegers(CharSequence s) {
+    int[] ints = extractInts(s);
+    List<Integer> integers = new ArrayList<>(ints.length);
+    for (int i : ints) {
+      integers.add(i);
     }
 
     return integers;
   }
 
-  public static int[] extractInts(String s) {
-    return extractIntegers(s).stream().mapToInt(Integer::intValue).toArray();
+  /** Unboxed version of {@link #extractIntegers(CharSequence)}. */
+  public static int[] extractInts(CharSequence s) {
+    int[] ints = new int[scanInts(s, null, 0)];
+    scanInts(s, ints, 0);
+    return ints;
+  }
+
+  /**
+   * Writes every integer in the string into {@code destination}, starting at index 0, and returns
+   * how many were written. Nothing is allocated, so a single destination array can be reused across
+   * many lines. Throws an {@link ArrayIndexOutOfBoundsException} if the array is too small.
+   */
+  public static int extractInts(CharSequence s, int[] destination) {
+    return scanInts(s, destination, 0);
+  }
+
+  /**
+   * Bulk version of {@link #extractInts(CharSequence)} that reads every integer in a mapped file.
+   * The file is scanned twice (once to size the result, once to fill it) so that no intermediate
+   * strings, boxes or growable buffers are created.
+   */
+  public static int[] extractInts(LineSource source) {
+    ByteSlice region = new ByteSlice();
+    int count = 0;
+    for (ByteBuffer buffer : source.regions()) {
+      region.reset(buffer, 0, buffer.limit());
+      count += scanInts(region, null, 0);
+    }
+
+    int[] ints = new int[count];
+    int offset = 0;
+    for (ByteBuffer buffer : source.regions()) {
+      region.reset(buffer, 0, buffer.limit());
+      offset += scanInts(region, ints, offset);
+    }
+    return ints;
+  }
+
+  /**
+   * Hand-rolled equivalent of repeatedly matching {@code [+\-]?\d+}. Writes the integers found into
+   * {@code destination} starting at {@code offset} (or only counts them if {@code destination} is
+   * null) and returns the number found.
+   */
+  private static int scanInts(CharSequence s, int[] destination, int offset) {
+    int count = 0;
+    int length = s.length();
+    int i = 0;
+    while (i < length) {
+      char c = s.charAt(i);
+      boolean negative = false;
+      if ((c == '-' || c == '+') && i + 1 < length && isDigit(s.charAt(i + 1))) {
+        negative = c == '-';
+        c = s.charAt(++i);
+      }
+
+      if (!isDigit(c)) {
+        i++;
+        continue;
+      }
+
+      // Accumulate negatively, like Integer.parseInt, so that Integer.MIN_VALUE can be represented
+      int start = i;
+      int value = 0;
+      for (; i < length && isDigit(s.charAt(i)); i++) {
+        int digit = s.charAt(i) - '0';
+        if (value < (Integer.MIN_VALUE + digit) / 10) {
+          throw new NumberFormatException("Integer out of range at index " + start);
+        }
+        value = value * 10 - digit;
+      }
+
+      if (!negative) {
+        if (value == Integer.MIN_VALUE) {
+          throw new NumberFormatException("Integer out of range at index " + start);
+        }
+        value = -value;
+      }
+
+      if (destination != null) {
+        destination[offset + count] = value;
+      }
+      count++;
+    }
+
+    return count;
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
   }
 
   /** Returns group #1 from the first match found in the given string */
@@ -38,7 +127,7 @@ public class ParseUtility {
   }
 
   /** Returns a list of strings matched by capturing groups (i.e. groups #1 and onward). */
-  public static List<String> getMatchedGroups(String s, Pattern p) {
+  public static List<String> getMatchedGroups(CharSequence s, Pattern p) {
     Matcher matcher = p.matcher(s);
     matcher.find();
 
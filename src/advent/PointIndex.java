@@ -0,0 +1,175 @@
+package advent;
+
+import advent.Day06.AxisDistances;
+import advent.Day06.Point;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * An immutable index over day 6's {@link Point}s, answering "which point owns (x, y)" and "what is
+ * the total distance from (x, y)" without scanning every point. Both are safe to query from many
+ * threads at once, and come in batch forms that do so.
+ *
+ * <p>Owners are found with a k-d tree, stored implicitly: each range of the arrays below holds a
+ * subtree, whose root is the median (by x or y, alternating with depth) at the middle of the range,
+ * with the points no greater on its left and no less on its right. The nearest point under the
+ * Manhattan distance is found by descending towards the query first, and only visiting the other
+ * side of a split if it is within the best distance so far along that axis. Sides at exactly that
+ * distance are still visited, so that ties are found. This takes O(log n) for typical inputs.
+ *
+ * <p>Total distances separate into a sum along each axis, each found in O(log n) by binary search
+ * over prefix sums of the sorted coordinates.
+ */
+public class PointIndex {
+
+  public static final int TIE = VoronoiGrid.TIE;
+
+  /* Coordinates and list indices of the points, in k-d tree order */
+  private final int[] xs;
+  private final int[] ys;
+  private final int[] indices;
+
+  private final AxisDistances columnDistances;
+  private final AxisDistances rowDistances;
+
+  /* Closest point found so far by one query */
+  private static class Nearest {
+    long distance = Long.MAX_VALUE;
+    int owner = TIE;
+  }
+
+  public PointIndex(List<Point> points) {
+    int n = points.size();
+    xs = new int[n];
+    ys = new int[n];
+    indices = new int[n];
+    for (int i = 0; i < n; i++) {
+      xs[i] = points.get(i).x;
+      ys[i] = points.get(i).y;
+      indices[i] = i;
+    }
+    build(0, n, true);
+
+    columnDistances = new AxisDistances(xs);
+    rowDistances = new AxisDistances(ys);
+  }
+
+  /**
+   * Returns the index of the point strictly closest to (x, y), or {@link #TIE} if several are
+   * equally close (including coincident points) or there are none.
+   */
+  public int getOwner(int x, int y) {
+    Nearest nearest = new Nearest();
+    search(0, xs.length, true, x, y, nearest);
+    return nearest.owner;
+  }
+
+  /** Returns the sum of the Manhattan distances from (x, y) to every point. */
+  public long getTotalDistance(int x, int y) {
+    return columnDistances.getTotalDistance(x) + rowDistances.getTotalDistance(y);
+  }
+
+  /** Returns {@link #getOwner} for each (xs[i], ys[i]), computed in parallel. */
+  public int[] getOwners(int[] xs, int[] ys) {
+    checkBatch(xs, ys);
+    return IntStream.range(0, xs.length).parallel().map(i -> getOwner(xs[i], ys[i])).toArray();
+  }
+
+  /** Returns {@link #getTotalDistance} for each (xs[i], ys[i]), computed in parallel. */
+  public long[] getTotalDistances(int[] xs, int[] ys) {
+    checkBatch(xs, ys);
+    return IntStream.range(0, xs.length)
+        .parallel()
+        .mapToLong(i -> getTotalDistance(xs[i], ys[i]))
+        .toArray();
+  }
+
+  private static void checkBatch(int[] xs, int[] ys) {
+    if (xs.length != ys.length) {
+      throw new IllegalArgumentException(
+          "Mismatched coordinates: " + xs.length + " x and " + ys.length + " y");
+    }
+  }
+
+  /** Arranges the range [lo, hi) into a subtree split on x or y. */
+  private void build(int lo, int hi, boolean splitOnX) {
+    if (hi - lo <= 1) {
+      return;
+    }
+    int middle = (lo + hi) >>> 1;
+    select(lo, hi, middle, splitOnX ? xs : ys);
+    build(lo, middle, !splitOnX);
+    build(middle + 1, hi, !splitOnX);
+  }
+
+  /**
+   * Partially sorts [lo, hi) by {@code keys} so that position k holds the value it would in sorted
+   * order, with no greater values before it and no smaller ones after (Hoare's quickselect).
+   */
+  private void select(int lo, int hi, int k, int[] keys) {
+    while (hi - lo > 1) {
+      int pivot = keys[(lo + hi) >>> 1];
+      int i = lo;
+      int j = hi - 1;
+      while (i <= j) {
+        while (keys[i] < pivot) {
+          i++;
+        }
+        while (keys[j] > pivot) {
+          j--;
+        }
+        if (i <= j) {
+          swap(i++, j--);
+        }
+      }
+
+      // Now [lo, j] is no greater than the pivot, [i, hi) no less, and anything between equal
+      if (k <= j) {
+        hi = j + 1;
+      } else if (k >= i) {
+        lo = i;
+      } else {
+        return;
+      }
+    }
+  }
+
+  private void swap(int i, int j) {
+    int x = xs[i];
+    xs[i] = xs[j];
+    xs[j] = x;
+    int y = ys[i];
+    ys[i] = ys[j];
+    ys[j] = y;
+    int index = indices[i];
+    indices[i] = indices[j];
+    indices[j] = index;
+  }
+
+  private void search(int lo, int hi, boolean splitOnX, int x, int y, Nearest nearest) {
+    if (lo >= hi) {
+      return;
+    }
+    int middle = (lo + hi) >>> 1;
+    long distance = Math.abs((long) x - xs[middle]) + Math.abs((long) y - ys[middle]);
+    if (distance < nearest.distance) {
+      nearest.distance = distance;
+      nearest.owner = indices[middle];
+    } else if (distance == nearest.distance) {
+      nearest.owner = TIE;
+    }
+
+    long offset = splitOnX ? (long) x - xs[middle] : (long) y - ys[middle];
+    if (offset < 0) {
+      search(lo, middle, !splitOnX, x, y, nearest);
+      if (-offset <= nearest.distance) {
+        search(middle + 1, hi, !splitOnX, x, y, nearest);
+      }
+    } else {
+      search(middle + 1, hi, !splitOnX, x, y, nearest);
+      if (offset <= nearest.distance) {
+        search(lo, middle, !splitOnX, x, y, nearest);
+      }
+    }
+  }
+}
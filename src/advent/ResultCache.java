@@ -0,0 +1,264 @@
+package advent;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UTFDataFormatException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * On-disk cache of solved answers, so that unchanged days needn't be solved again. Entries are
+ * content-addressed: the key is a SHA-256 hash of the day, the solver's version and the input
+ * file's contents, so editing either the input or the solver simply misses the cache.
+ *
+ * <p>The solver's version is a hash of every class file in its package, names included, so that
+ * changes to the helper classes solvers share or delegate to (e.g. {@link ParseUtility}, {@link
+ * VoronoiGrid}) miss the cache too. That is coarser than the solver's own dependencies, but cannot
+ * serve stale answers. The hash is computed once per package and process.
+ *
+ * <p>Eviction is least-recently-used: every hit refreshes its entry's modification time, and once
+ * there are more than {@code maxEntries} entries the oldest are deleted.
+ */
+public class ResultCache {
+
+  public static class Entry {
+    public final String partOne;
+    public final String partTwo;
+
+    public Entry(String partOne, String partTwo) {
+      this.partOne = partOne;
+      this.partTwo = partTwo;
+    }
+  }
+
+  static final String DEFAULT_DIRECTORY = ".cache/results";
+  static final int DEFAULT_MAX_ENTRIES = 200;
+
+  private static final String EXTENSION = ".result";
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  /* Hash of each package's class files, by package name */
+  private static final Map<String, byte[]> PACKAGE_HASHES = new HashMap<>();
+
+  private final Path directory;
+  private final int maxEntries;
+
+  public ResultCache() {
+    this(DEFAULT_DIRECTORY, DEFAULT_MAX_ENTRIES);
+  }
+
+  public ResultCache(String directory, int maxEntries) {
+    if (maxEntries < 1) {
+      throw new IllegalArgumentException("Cache must hold at least one entry: " + maxEntries);
+    }
+    this.directory = Paths.get(directory);
+    this.maxEntries = maxEntries;
+  }
+
+  /** Returns the cache key for solving {@code inputPath} with {@code solver} as {@code day}. */
+  public static String getKey(String day, Solver<?> solver, String inputPath) throws IOException {
+    MessageDigest digest = newDigest();
+    digest.update(day.getBytes(StandardCharsets.UTF_8));
+    digest.update((byte) 0);
+    digest.update(getPackageHash(solver.getClass()));
+    digest.update((byte) 0);
+    try (InputStream in = Files.newInputStream(Paths.get(inputPath))) {
+      update(digest, in);
+    }
+    return toHex(digest.digest());
+  }
+
+  /** Returns the cached answers for {@code key}, or null on a miss. */
+  public Entry get(String key) {
+    Path path = getPath(key);
+    try (DataInputStream in = new DataInputStream(Files.newInputStream(path))) {
+      Entry entry = new Entry(in.readUTF(), in.readUTF());
+      Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+      return entry;
+    } catch (IOException e) {
+      // Missing, unreadable or truncated: all are misses, and the entry will be rewritten
+      return null;
+    }
+  }
+
+  /**
+   * Stores answers under {@code key}, then evicts the least recently used entries if the cache is
+   * over capacity. Answers too long to store are silently not cached.
+   */
+  public synchronized void put(String key, Object partOne, Object partTwo) throws IOException {
+    Files.createDirectories(directory);
+
+    Path path = getPath(key);
+    Path partial = directory.resolve(key + ".partial");
+    try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(partial))) {
+      out.writeUTF(String.valueOf(partOne));
+      out.writeUTF(String.valueOf(partTwo));
+    } catch (UTFDataFormatException e) {
+      Files.deleteIfExists(partial);
+      return;
+    }
+
+    // Readers must never see a partially written entry
+    try {
+      Files.move(
+          partial, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(partial, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    evict();
+  }
+
+  private void evict() throws IOException {
+    List<Path> entries = new ArrayList<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + EXTENSION)) {
+      for (Path entry : stream) {
+        entries.add(entry);
+      }
+    }
+    if (entries.size() <= maxEntries) {
+      return;
+    }
+
+    // Oldest first
+    FileTime[] times = new FileTime[entries.size()];
+    Integer[] order = new Integer[entries.size()];
+    for (int i = 0; i < times.length; i++) {
+      times[i] = Files.getLastModifiedTime(entries.get(i));
+      order[i] = i;
+    }
+    Arrays.sort(order, Comparator.comparing(i -> times[i]));
+
+    for (int i = 0; i < entries.size() - maxEntries; i++) {
+      Files.deleteIfExists(entries.get(order[i]));
+    }
+  }
+
+  private Path getPath(String key) {
+    return directory.resolve(key + EXTENSION);
+  }
+
+  /** Returns the hash of the names and contents of the class files in {@code type}'s package. */
+  private static byte[] getPackageHash(Class<?> type) throws IOException {
+    String packagePath = type.getName().substring(0, type.getName().lastIndexOf('.') + 1);
+    packagePath = packagePath.replace('.', '/');
+    synchronized (PACKAGE_HASHES) {
+      byte[] hash = PACKAGE_HASHES.get(packagePath);
+      if (hash == null) {
+        hash = hashPackage(type, packagePath);
+        PACKAGE_HASHES.put(packagePath, hash);
+      }
+      return hash;
+    }
+  }
+
+  /** Hashes the package's class files, in name order, from a class directory or a JAR. */
+  private static byte[] hashPackage(Class<?> type, String packagePath) throws IOException {
+    if (type.getProtectionDomain().getCodeSource() == null) {
+      throw new IOException("Cannot locate the class files of " + type.getName());
+    }
+    URL location = type.getProtectionDomain().getCodeSource().getLocation();
+    Path root;
+    try {
+      root = Paths.get(location.toURI());
+    } catch (URISyntaxException | IllegalArgumentException e) {
+      throw new IOException("Cannot read class files from " + location, e);
+    }
+
+    MessageDigest digest = newDigest();
+    if (Files.isDirectory(root)) {
+      List<Path> classFiles;
+      try (Stream<Path> files =
+          Files.find(
+              root.resolve(packagePath),
+              1,
+              (path, attributes) -> isClassFile(path.getFileName().toString(), attributes))) {
+        classFiles = files.sorted().collect(Collectors.toList());
+      }
+      for (Path classFile : classFiles) {
+        digest.update(classFile.getFileName().toString().getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        try (InputStream in = Files.newInputStream(classFile)) {
+          update(digest, in);
+        }
+      }
+    } else {
+      try (ZipFile jar = new ZipFile(root.toFile())) {
+        List<ZipEntry> classFiles = new ArrayList<>();
+        for (Enumeration<? extends ZipEntry> e = jar.entries(); e.hasMoreElements(); ) {
+          ZipEntry entry = e.nextElement();
+          String name = entry.getName();
+          if (name.startsWith(packagePath)
+              && name.endsWith(".class")
+              && name.indexOf('/', packagePath.length()) < 0) {
+            classFiles.add(entry);
+          }
+        }
+        Collections.sort(classFiles, Comparator.comparing(ZipEntry::getName));
+        for (ZipEntry classFile : classFiles) {
+          digest.update(classFile.getName().getBytes(StandardCharsets.UTF_8));
+          digest.update((byte) 0);
+          try (InputStream in = jar.getInputStream(classFile)) {
+            update(digest, in);
+          }
+        }
+      }
+    }
+    return digest.digest();
+  }
+
+  private static boolean isClassFile(String name, BasicFileAttributes attributes) {
+    return attributes.isRegularFile() && name.endsWith(".class");
+  }
+
+  private static void update(MessageDigest digest, InputStream in) throws IOException {
+    byte[] buffer = new byte[64 * 1024];
+    int read;
+    while ((read = in.read(buffer)) != -1) {
+      digest.update(buffer, 0, read);
+    }
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      // Every Java platform is required to support SHA-256
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static String toHex(byte[] bytes) {
+    char[] hex = new char[bytes.length * 2];
+    for (int i = 0; i < bytes.length; i++) {
+      hex[2 * i] = HEX_DIGITS[(bytes[i] >> 4) & 0xF];
+      hex[2 * i + 1] = HEX_DIGITS[bytes[i] & 0xF];
+    }
+    return new String(hex);
+  }
+}
@@ -0,0 +1,235 @@
+package advent;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Asynchronous replacement for {@link FileUtility#printAndOutput(Object, String)}. Answers are
+ * queued by the solving threads and written in batches by a single background thread, so solvers
+ * never block on the console or the file system. Console output is flushed once, when the sink is
+ * closed.
+ *
+ * <p>If a results file is given, every answer is also collected into that one file on close, keyed
+ * (and sorted) by the name of its output file (e.g. "05a"). A ".csv" extension selects CSV;
+ * anything else is written as JSON.
+ */
+public class ResultSink implements Closeable {
+
+  private static class Entry {
+    public final String output;
+    public final String filepath;
+
+    public Entry(String output, String filepath) {
+      this.output = output;
+      this.filepath = filepath;
+    }
+  }
+
+  /* Marks the end of the queue */
+  private static final Entry END = new Entry(null, null);
+
+  private final BlockingQueue<Entry> queue = new LinkedBlockingQueue<>();
+  private final StringBuilder console = new StringBuilder();
+  private final Map<String, String> results = new TreeMap<>();
+  private final Set<Path> createdDirectories = new HashSet<>();
+
+  private final PrintStream out;
+  private final String resultsFilepath;
+  private final Thread writer;
+
+  private IOException failure = null;
+
+  /* Producers hold the read side while queueing, so that none can queue after END */
+  private final ReentrantReadWriteLock closing = new ReentrantReadWriteLock();
+  private boolean closed = false;
+
+  public ResultSink() {
+    this(System.out, null);
+  }
+
+  /**
+   * @param out where answers are echoed, or null to skip the console entirely
+   * @param resultsFilepath consolidated results file, or null for none
+   */
+  public ResultSink(PrintStream out, String resultsFilepath) {
+    this.out = out;
+    this.resultsFilepath = resultsFilepath;
+
+    writer = new Thread(this::writeBatches, "result-sink");
+    writer.setDaemon(true);
+    writer.start();
+  }
+
+  /**
+   * Queues an answer to be printed and written to {@code filepath}. Only blocks (briefly) while
+   * the sink is being closed, and throws if it already has been.
+   */
+  public void printAndOutput(Object output, String filepath) {
+    closing.readLock().lock();
+    try {
+      if (closed) {
+        throw new IllegalStateException("Result sink is closed");
+      }
+      queue.add(new Entry(String.valueOf(output), filepath));
+    } finally {
+      closing.readLock().unlock();
+    }
+  }
+
+  /** Writes everything queued so far, flushes the console and writes the results file. */
+  @Override
+  public synchronized void close() throws IOException {
+    closing.writeLock().lock();
+    try {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      queue.add(END);
+    } finally {
+      closing.writeLock().unlock();
+    }
+
+    try {
+      writer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while writing results", e);
+    }
+
+    if (out != null) {
+      out.print(console);
+      out.flush();
+    }
+
+    if (failure == null && resultsFilepath != null) {
+      try {
+        writeFile(resultsFilepath, resultsFilepath.endsWith(".csv") ? toCsv() : toJson());
+      } catch (IOException e) {
+        failure = e;
+      }
+    }
+
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  private void writeBatches() {
+    List<Entry> batch = new ArrayList<>();
+    while (true) {
+      try {
+        batch.add(queue.take());
+      } catch (InterruptedException e) {
+        return;
+      }
+      queue.drainTo(batch);
+
+      for (Entry entry : batch) {
+        if (entry == END) {
+          return;
+        }
+        write(entry);
+      }
+      batch.clear();
+    }
+  }
+
+  private void write(Entry entry) {
+    String output = entry.output;
+    console.append(output).append(System.lineSeparator());
+    results.put(getResultName(entry.filepath), output);
+
+    // Keep going after a failure so that the remaining answers still reach the console
+    if (failure == null) {
+      try {
+        writeFile(entry.filepath, output);
+      } catch (IOException e) {
+        failure = e;
+      }
+    }
+  }
+
+  private void writeFile(String filepath, String contents) throws IOException {
+    Path path = Paths.get(filepath);
+    Path parent = path.toAbsolutePath().getParent();
+    if (parent != null && createdDirectories.add(parent)) {
+      Files.createDirectories(parent);
+    }
+    Files.write(path, contents.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /** "output/05a.txt" -> "05a" */
+  private static String getResultName(String filepath) {
+    String name = Paths.get(filepath).getFileName().toString();
+    int extension = name.lastIndexOf('.');
+    return extension > 0 ? name.substring(0, extension) : name;
+  }
+
+  private String toJson() {
+    StringBuilder builder = new StringBuilder("{\n");
+    int remaining = results.size();
+    for (Map.Entry<String, String> result : results.entrySet()) {
+      builder.append("  ");
+      appendJsonString(builder, result.getKey());
+      builder.append(": ");
+      appendJsonString(builder, result.getValue());
+      builder.append(--remaining > 0 ? ",\n" : "\n");
+    }
+    return builder.append("}\n").toString();
+  }
+
+  private static void appendJsonString(StringBuilder builder, String s) {
+    builder.append('"');
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      switch (c) {
+        case '"':
+          builder.append("\\\"");
+          break;
+        case '\\':
+          builder.append("\\\\");
+          break;
+        case '\n':
+          builder.append("\\n");
+          break;
+        case '\r':
+          builder.append("\\r");
+          break;
+        case '\t':
+          builder.append("\\t");
+          break;
+        default:
+          if (c < 0x20) {
+            builder.append(String.format("\\u%04x", (int) c));
+          } else {
+            builder.append(c);
+          }
+      }
+    }
+    builder.append('"');
+  }
+
+  private String toCsv() {
+    StringBuilder builder = new StringBuilder("name,answer\n");
+    for (Map.Entry<String, String> result : results.entrySet()) {
+      builder.append(result.getKey()).append(",\"");
+      builder.append(result.getValue().replace("\"", "\"\"")).append("\"\n");
+    }
+    return builder.toString();
+  }
+}
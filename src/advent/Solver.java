@@ -0,0 +1,17 @@
+package advent;
+
+import java.io.IOException;
+
+/**
+ * A day's solution, split into phases so that every day can be run (and timed) the same way. Parts
+ * are always run in order, after parsing, on the same parsed input; days whose parts share work may
+ * stash it in their input object.
+ */
+public interface Solver<T> {
+  /** Reads and parses the puzzle input at {@code filepath}. */
+  T parse(String filepath) throws IOException;
+
+  Object partOne(T input);
+
+  Object partTwo(T input);
+}
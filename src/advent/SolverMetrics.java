@@ -0,0 +1,158 @@
+package advent;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-solve measurements: wall time and allocated bytes for each {@link Phase}, plus any counters
+ * that the solver reports from its hot loops through {@link #count(String, long)}. Each phase is
+ * also recorded as a JFR event when running on a JVM that supports it (see {@link JfrEvents}).
+ *
+ * <p>Allocation and counters are per thread: they cover the solving thread only, so work that a
+ * solver hands off to other threads (e.g. parallel streams on the common pool) is not included, and
+ * figures for such solvers (Day02, Day05, Day06) are lower bounds. Wall time does cover it. {@link
+ * SolverRunner} solves each day on a plain thread, so a solve never runs another day's work.
+ */
+public class SolverMetrics {
+
+  public enum Phase {
+    PARSE("parse"),
+    PART_ONE("partOne"),
+    PART_TWO("partTwo");
+
+    public final String label;
+
+    Phase(String label) {
+      this.label = label;
+    }
+  }
+
+  @FunctionalInterface
+  public interface PhaseBody<T, E extends Exception> {
+    T run() throws E;
+  }
+
+  private static final ThreadLocal<SolverMetrics> CURRENT = new ThreadLocal<>();
+
+  private static final com.sun.management.ThreadMXBean THREADS = getAllocationTrackingBean();
+
+  private final String day;
+  private final long[] wallNanos = new long[Phase.values().length];
+  private final long[] allocatedBytes = new long[Phase.values().length];
+  private final Map<String, Long> counters = new TreeMap<>();
+
+  public SolverMetrics(String day) {
+    this.day = day;
+  }
+
+  /**
+   * Adds {@code amount} to the named counter of the solve running on this thread. Does nothing if
+   * no solve is being measured (including on helper threads), so solvers may call this
+   * unconditionally. Hot loops should count locally and report once, rather than calling this per
+   * iteration.
+   */
+  public static void count(String counter, long amount) {
+    SolverMetrics metrics = CURRENT.get();
+    if (metrics != null) {
+      metrics.counters.merge(counter, amount, Long::sum);
+    }
+  }
+
+  /** Runs {@code body} as the given phase of this solve, recording its time and allocations. */
+  public <T, E extends Exception> T measure(Phase phase, PhaseBody<T, E> body) throws E {
+    SolverMetrics previous = CURRENT.get();
+    CURRENT.set(this);
+
+    Object event = JfrEvents.begin();
+    long startBytes = getAllocatedBytes();
+    long start = System.nanoTime();
+    try {
+      return body.run();
+    } finally {
+      wallNanos[phase.ordinal()] = System.nanoTime() - start;
+      long endBytes = getAllocatedBytes();
+      allocatedBytes[phase.ordinal()] = (startBytes < 0) ? -1 : endBytes - startBytes;
+      JfrEvents.commit(event, day, phase.label, allocatedBytes[phase.ordinal()]);
+
+      CURRENT.set(previous);
+    }
+  }
+
+  public String getDay() {
+    return day;
+  }
+
+  public long getWallNanos(Phase phase) {
+    return wallNanos[phase.ordinal()];
+  }
+
+  public long getTotalWallNanos() {
+    long total = 0;
+    for (long nanos : wallNanos) {
+      total += nanos;
+    }
+    return total;
+  }
+
+  /** Returns -1 if the JVM cannot measure per-thread allocation. */
+  public long getAllocatedBytes(Phase phase) {
+    return allocatedBytes[phase.ordinal()];
+  }
+
+  public Map<String, Long> getCounters() {
+    return counters;
+  }
+
+  /** Returns a single-line JSON object, suitable for appending to a JSON Lines report. */
+  public String toJson(long timestampMillis) {
+    StringBuilder builder = new StringBuilder();
+    builder.append("{\"timestamp\":").append(timestampMillis);
+    builder.append(",\"day\":\"").append(day).append('"');
+
+    builder.append(",\"phases\":{");
+    for (Phase phase : Phase.values()) {
+      if (phase.ordinal() > 0) {
+        builder.append(',');
+      }
+      builder.append('"').append(phase.label).append("\":{");
+      builder.append("\"wallNanos\":").append(getWallNanos(phase));
+      builder.append(",\"allocatedBytes\":").append(getAllocatedBytes(phase));
+      builder.append('}');
+    }
+    builder.append('}');
+
+    builder.append(",\"counters\":{");
+    boolean first = true;
+    for (Map.Entry<String, Long> counter : counters.entrySet()) {
+      if (!first) {
+        builder.append(',');
+      }
+      first = false;
+      builder.append('"').append(counter.getKey()).append("\":").append(counter.getValue());
+    }
+    return builder.append("}}").toString();
+  }
+
+  private static long getAllocatedBytes() {
+    return THREADS == null ? -1 : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  /** Returns null on JVMs that don't track per-thread allocation. */
+  private static com.sun.management.ThreadMXBean getAllocationTrackingBean() {
+    ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+      return null;
+    }
+
+    com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+    if (!sunBean.isThreadAllocatedMemorySupported()) {
+      return null;
+    }
+    if (!sunBean.isThreadAllocatedMemoryEnabled()) {
+      sunBean.setThreadAllocatedMemoryEnabled(true);
+    }
+    return sunBean;
+  }
+}
@@ -0,0 +1,264 @@
+package advent;
+
+import advent.SolverMetrics.Phase;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs every registered {@link Solver} (or the days named on the command line) concurrently in a
+ * single JVM, then prints each day's answers and a table of per-phase latencies. Answers are also
+ * written to the output directory through a {@link ResultSink}.
+ *
+ * <p>Arguments: {@code [--warmup N] [--parallelism N] [--results FILE] [--metrics FILE]
+ * [--no-cache] [DAY...]}. Answers are looked up in the {@link ResultCache} first, so only days
+ * whose input or solver changed are solved; {@code --no-cache} bypasses it. Warm-up iterations
+ * solve each day N extra times before the measured run, so that the table reflects JIT-compiled
+ * code. {@code --results} also collects every answer into one JSON (or, given a ".csv" name, CSV)
+ * file. {@code --metrics} appends each day's {@link SolverMetrics} to a JSON Lines file, one line
+ * per day per run, so that runs can be compared over time.
+ */
+public class SolverRunner {
+
+  static class Result {
+    public final String day;
+    public final SolverMetrics metrics;
+    public Object partOne;
+    public Object partTwo;
+    public boolean cached = false;
+    public Throwable error = null;
+
+    public Result(String day) {
+      this.day = day;
+      metrics = new SolverMetrics(day);
+    }
+  }
+
+  public static void main(String[] args) throws IOException, InterruptedException {
+    int warmupIterations = 0;
+    String resultsFilepath = null;
+    String metricsFilepath = null;
+    boolean useCache = true;
+    int parallelism = Runtime.getRuntime().availableProcessors();
+    List<String> days = new ArrayList<>();
+    for (int i = 0; i < args.length; i++) {
+      switch (args[i]) {
+        case "--warmup":
+          warmupIterations = Integer.parseInt(args[++i]);
+          break;
+        case "--parallelism":
+          parallelism = Integer.parseInt(args[++i]);
+          break;
+        case "--results":
+          resultsFilepath = args[++i];
+          break;
+        case "--metrics":
+          metricsFilepath = args[++i];
+          break;
+        case "--no-cache":
+          useCache = false;
+          break;
+        default:
+          days.add(args[i]);
+      }
+    }
+    if (days.isEmpty()) {
+      days.addAll(Solvers.getDays());
+    }
+
+    long start = System.nanoTime();
+    List<Result> results;
+    // Answers are printed below, in day order, so the sink only writes files
+    try (ResultSink sink = new ResultSink(null, resultsFilepath)) {
+      results =
+          runAll(days, warmupIterations, parallelism, sink, useCache ? new ResultCache() : null);
+    }
+    long wallNanos = System.nanoTime() - start;
+
+    for (Result result : results) {
+      printAnswers(result);
+    }
+    System.out.println();
+    printLatencyTable(results, wallNanos);
+
+    if (metricsFilepath != null) {
+      appendMetrics(results, metricsFilepath);
+    }
+  }
+
+  /** @param cache where answers are looked up and stored, or null to always solve */
+  static List<Result> runAll(
+      List<String> days,
+      int warmupIterations,
+      int parallelism,
+      ResultSink sink,
+      ResultCache cache)
+      throws InterruptedException {
+    // Plain threads rather than a fork/join pool: solvers with parallel internals would run them in
+    // the solvers' own pool, where joining can steal (and so be charged for) another day's solve
+    ExecutorService pool = Executors.newFixedThreadPool(parallelism);
+    try {
+      List<Future<Result>> tasks = new ArrayList<>(days.size());
+      for (String day : days) {
+        tasks.add(pool.submit(() -> run(day, warmupIterations, sink, cache)));
+      }
+
+      List<Result> results = new ArrayList<>(days.size());
+      for (Future<Result> task : tasks) {
+        try {
+          results.add(task.get());
+        } catch (ExecutionException e) {
+          // run() records its own failures, so this only happens on errors in the pool itself
+          throw new IllegalStateException(e.getCause());
+        }
+      }
+      return results;
+    } finally {
+      pool.shutdown();
+      pool.awaitTermination(1, TimeUnit.MINUTES);
+    }
+  }
+
+  static Result run(String day, int warmupIterations, ResultSink sink, ResultCache cache) {
+    Result result = new Result(day);
+    try {
+      String key = null;
+      ResultCache.Entry entry = null;
+      if (cache != null) {
+        key = ResultCache.getKey(day, Solvers.getSolver(day), Solvers.getInputPath(day));
+        entry = cache.get(key);
+      }
+
+      if (entry != null) {
+        result.partOne = entry.partOne;
+        result.partTwo = entry.partTwo;
+        result.cached = true;
+      } else {
+        for (int i = 0; i < warmupIterations; i++) {
+          solve(day, new Result(day));
+        }
+        solve(day, result);
+
+        if (cache != null) {
+          storeInCache(cache, key, result);
+        }
+      }
+
+      sink.printAndOutput(result.partOne, Solvers.getOutputPath(day, 'a'));
+      sink.printAndOutput(result.partTwo, Solvers.getOutputPath(day, 'b'));
+    } catch (IOException | RuntimeException | StackOverflowError e) {
+      result.error = e;
+    }
+    return result;
+  }
+
+  /** A cache that can't be written only costs time, so the answers are still reported. */
+  private static void storeInCache(ResultCache cache, String key, Result result) {
+    try {
+      cache.put(key, result.partOne, result.partTwo);
+    } catch (IOException e) {
+      System.err.println("Could not cache day " + result.day + ": " + e);
+    }
+  }
+
+  /** Solves {@code day} with a fresh solver, recording answers and phase metrics in the result. */
+  private static <T> void solve(String day, Result result) throws IOException {
+    @SuppressWarnings("unchecked")
+    Solver<T> solver = (Solver<T>) Solvers.getSolver(day);
+    SolverMetrics metrics = result.metrics;
+
+    T input = metrics.measure(Phase.PARSE, () -> solver.parse(Solvers.getInputPath(day)));
+    result.partOne = metrics.measure(Phase.PART_ONE, () -> solver.partOne(input));
+    result.partTwo = metrics.measure(Phase.PART_TWO, () -> solver.partTwo(input));
+  }
+
+  private static void printAnswers(Result result) {
+    if (result.error != null) {
+      System.out.println(result.day + ": FAILED (" + result.error + ")");
+      return;
+    }
+
+    System.out.println(result.day + "a: " + result.partOne);
+    System.out.println(result.day + "b: " + result.partTwo);
+  }
+
+  private static void printLatencyTable(List<Result> results, long wallNanos) {
+    String format = "%-4s %12s %12s %12s %12s %12s%n";
+    System.out.printf(
+        format, "Day", "Parse (ms)", "Part 1 (ms)", "Part 2 (ms)", "Total (ms)", "Alloc (MB)");
+
+    long sumNanos = 0;
+    for (Result result : results) {
+      if (result.error != null) {
+        System.out.printf(format, result.day, "-", "-", "-", "FAILED", "-");
+        continue;
+      }
+      if (result.cached) {
+        System.out.printf(format, result.day, "-", "-", "-", "cached", "-");
+        continue;
+      }
+
+      SolverMetrics metrics = result.metrics;
+      System.out.printf(
+          format,
+          result.day,
+          millis(metrics.getWallNanos(Phase.PARSE)),
+          millis(metrics.getWallNanos(Phase.PART_ONE)),
+          millis(metrics.getWallNanos(Phase.PART_TWO)),
+          millis(metrics.getTotalWallNanos()),
+          megabytes(metrics));
+      sumNanos += metrics.getTotalWallNanos();
+    }
+
+    System.out.printf(format, "Sum", "", "", "", millis(sumNanos), "");
+    System.out.printf(format, "Wall", "", "", "", millis(wallNanos), "");
+  }
+
+  private static String millis(long nanos) {
+    return String.format("%.1f", nanos / 1e6);
+  }
+
+  private static String megabytes(SolverMetrics metrics) {
+    long bytes = 0;
+    for (Phase phase : Phase.values()) {
+      if (metrics.getAllocatedBytes(phase) < 0) {
+        return "n/a";
+      }
+      bytes += metrics.getAllocatedBytes(phase);
+    }
+    return String.format("%.1f", bytes / (1024.0 * 1024.0));
+  }
+
+  /** Appends one JSON line per day actually solved, all stamped with the same time. */
+  private static void appendMetrics(List<Result> results, String filepath) throws IOException {
+    long timestamp = System.currentTimeMillis();
+    List<String> lines = new ArrayList<>(results.size());
+    for (Result result : results) {
+      if (result.error == null && !result.cached) {
+        lines.add(result.metrics.toJson(timestamp));
+      }
+    }
+
+    Path path = Paths.get(filepath);
+    Path parent = path.toAbsolutePath().getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+    Files.write(
+        path,
+        lines,
+        StandardCharsets.UTF_8,
+        StandardOpenOption.CREATE,
+        StandardOpenOption.APPEND);
+  }
+}
@@ -0,0 +1,74 @@
+package advent;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/** Registry of every day's {@link Solver}, keyed by two-digit day number. */
+public class Solvers {
+  private static final Map<String, Supplier<Solver<?>>> SOLVERS = new LinkedHashMap<>();
+
+  static {
+    SOLVERS.put("01", Day01::new);
+    SOLVERS.put("02", Day02::new);
+    SOLVERS.put("03", Day03::new);
+    SOLVERS.put("04", Day04::new);
+    SOLVERS.put("05", Day05::new);
+    SOLVERS.put("06", Day06::new);
+    SOLVERS.put("07", Day07::new);
+    SOLVERS.put("08", Day08::new);
+    SOLVERS.put("09", Day09::new);
+    SOLVERS.put("10", Day10::new);
+    SOLVERS.put("11", Day11::new);
+    SOLVERS.put("12", Day12::new);
+    SOLVERS.put("13", Day13::new);
+    SOLVERS.put("14", Day14::new);
+    SOLVERS.put("16", Day16::new);
+    SOLVERS.put("17", Day17::new);
+    SOLVERS.put("18", Day18::new);
+    SOLVERS.put("19", Day19::new);
+    SOLVERS.put("21", Day21::new);
+  }
+
+  /** Returns the registered days, in order. */
+  public static Set<String> getDays() {
+    return Collections.unmodifiableSet(SOLVERS.keySet());
+  }
+
+  public static Solver<?> getSolver(String day) {
+    Supplier<Solver<?>> solver = SOLVERS.get(day);
+    if (solver == null) {
+      throw new IllegalArgumentException("No solver for day " + day);
+    }
+    return solver.get();
+  }
+
+  public static String getInputPath(String day) {
+    return "input/" + day + ".txt";
+  }
+
+  public static String getOutputPath(String day, char part) {
+    return "output/" + day + part + ".txt";
+  }
+
+  /** Solves both parts of a day, printing each answer and writing it to the output directory. */
+  public static <T> void solveAndOutput(String day, Solver<T> solver) throws IOException {
+    try (ResultSink sink = new ResultSink()) {
+      solveAndOutput(day, solver, sink);
+    }
+  }
+
+  public static <T> void solveAndOutput(String day, Solver<T> solver, ResultSink sink)
+      throws IOException {
+    T input = solver.parse(getInputPath(day));
+
+    // Part one
+    sink.printAndOutput(solver.partOne(input), getOutputPath(day, 'a'));
+
+    // Part two
+    sink.printAndOutput(solver.partTwo(input), getOutputPath(day, 'b'));
+  }
+}
@@ -0,0 +1,271 @@
+package advent;
+
+import java.util.Arrays;
+
+/**
+ * Schedules a DAG of steps, identified by ints from 0, where each step can only begin once all
+ * its prior steps are finished, and ready steps are always taken lowest ID first (day 7).
+ *
+ * <p>The edges are stored compactly, as one array of next steps with an offset per step, and
+ * readiness is tracked by counting down each step's unfinished prior steps, so that finishing a
+ * step only touches its own edges. Simulating workers is event driven: running steps sit in a
+ * heap by completion time, and time jumps straight to the next completion, finishing every step
+ * due then before handing out the freed workers.
+ */
+public class StepScheduler {
+
+  /** Receives the events of a simulation, e.g. to trace them. */
+  public interface Listener {
+    void started(int step, long time);
+
+    void finished(int step, long time);
+  }
+
+  private final int stepCount;
+
+  /* Step s is followed by nextSteps[edgeStarts[s]] to nextSteps[edgeStarts[s + 1] - 1] */
+  private final int[] edgeStarts;
+  private final int[] nextSteps;
+
+  /* Number of steps each step must wait for */
+  private final int[] inDegrees;
+
+  /** Creates a scheduler where step priorSteps[i] must be finished before step nextSteps[i]. */
+  public StepScheduler(int stepCount, int[] priorSteps, int[] nextSteps) {
+    if (priorSteps.length != nextSteps.length) {
+      throw new IllegalArgumentException(
+          "Mismatched edges: " + priorSteps.length + " prior and " + nextSteps.length + " next");
+    }
+    this.stepCount = stepCount;
+    edgeStarts = new int[stepCount + 1];
+    inDegrees = new int[stepCount];
+    for (int i = 0; i < priorSteps.length; i++) {
+      checkStep(priorSteps[i]);
+      checkStep(nextSteps[i]);
+      edgeStarts[priorSteps[i] + 1]++;
+      inDegrees[nextSteps[i]]++;
+    }
+    for (int step = 0; step < stepCount; step++) {
+      edgeStarts[step + 1] += edgeStarts[step];
+    }
+
+    this.nextSteps = new int[nextSteps.length];
+    int[] ends = Arrays.copyOf(edgeStarts, stepCount);
+    for (int i = 0; i < priorSteps.length; i++) {
+      this.nextSteps[ends[priorSteps[i]]++] = nextSteps[i];
+    }
+  }
+
+  public int getStepCount() {
+    return stepCount;
+  }
+
+  /** Returns the order a single worker taking no time would finish the steps in. */
+  public int[] getExecutionOrder() {
+    int[] remaining = inDegrees.clone();
+    IntHeap ready = getFirstSteps();
+    int[] order = new int[stepCount];
+    int finished = 0;
+    while (!ready.isEmpty()) {
+      int step = ready.pop();
+      order[finished++] = step;
+      release(step, remaining, ready);
+    }
+    checkAllFinished(finished);
+    return order;
+  }
+
+  /** Returns when the last step finishes, with {@code workers} working in parallel. */
+  public long getCompletionTime(int workers, int[] durations) {
+    return getCompletionTime(workers, durations, null);
+  }
+
+  /**
+   * Returns when the last step finishes, with {@code workers} working in parallel and step s
+   * taking durations[s], reporting every start and finish to {@code listener} if not null.
+   */
+  public long getCompletionTime(int workers, int[] durations, Listener listener) {
+    if (workers < 1) {
+      throw new IllegalArgumentException("Need at least one worker: " + workers);
+    }
+    if (durations.length != stepCount) {
+      throw new IllegalArgumentException(
+          "Expected " + stepCount + " durations, got " + durations.length);
+    }
+
+    int[] remaining = inDegrees.clone();
+    IntHeap ready = getFirstSteps();
+    EventHeap running = new EventHeap(Math.min(workers, stepCount));
+    int idleWorkers = workers;
+    int finished = 0;
+    long time = 0;
+    while (true) {
+      while (idleWorkers > 0 && !ready.isEmpty()) {
+        int step = ready.pop();
+        if (durations[step] < 0) {
+          throw new IllegalArgumentException("Negative duration for step " + step);
+        }
+        running.push(time + durations[step], step);
+        idleWorkers--;
+        if (listener != null) {
+          listener.started(step, time);
+        }
+      }
+      if (running.isEmpty()) {
+        break;
+      }
+
+      time = running.peekTime();
+      do {
+        int step = running.pop();
+        idleWorkers++;
+        finished++;
+        if (listener != null) {
+          listener.finished(step, time);
+        }
+        release(step, remaining, ready);
+      } while (!running.isEmpty() && running.peekTime() == time);
+    }
+    checkAllFinished(finished);
+    return time;
+  }
+
+  private void checkStep(int step) {
+    if (step < 0 || step >= stepCount) {
+      throw new IllegalArgumentException("Step out of range: " + step);
+    }
+  }
+
+  private void checkAllFinished(int finished) {
+    if (finished != stepCount) {
+      throw new IllegalArgumentException(
+          (stepCount - finished) + " steps wait on each other in a cycle");
+    }
+  }
+
+  private IntHeap getFirstSteps() {
+    IntHeap firstSteps = new IntHeap(stepCount);
+    for (int step = 0; step < stepCount; step++) {
+      if (inDegrees[step] == 0) {
+        firstSteps.push(step);
+      }
+    }
+    return firstSteps;
+  }
+
+  /** Marks {@code step} finished, adding the steps left waiting on nothing else to ready. */
+  private void release(int step, int[] remaining, IntHeap ready) {
+    for (int i = edgeStarts[step]; i < edgeStarts[step + 1]; i++) {
+      if (--remaining[nextSteps[i]] == 0) {
+        ready.push(nextSteps[i]);
+      }
+    }
+  }
+
+  /** A binary min-heap of step IDs. */
+  private static class IntHeap {
+    private final int[] values;
+    private int size = 0;
+
+    public IntHeap(int capacity) {
+      values = new int[capacity];
+    }
+
+    public boolean isEmpty() {
+      return size == 0;
+    }
+
+    public void push(int value) {
+      int i = size++;
+      while (i > 0 && values[(i - 1) >>> 1] > value) {
+        values[i] = values[(i - 1) >>> 1];
+        i = (i - 1) >>> 1;
+      }
+      values[i] = value;
+    }
+
+    public int pop() {
+      int top = values[0];
+      int last = values[--size];
+      int i = 0;
+      while (2 * i + 1 < size) {
+        int child = 2 * i + 1;
+        if (child + 1 < size && values[child + 1] < values[child]) {
+          child++;
+        }
+        if (values[child] >= last) {
+          break;
+        }
+        values[i] = values[child];
+        i = child;
+      }
+      values[i] = last;
+      return top;
+    }
+  }
+
+  /** A binary min-heap of running steps, by completion time then step ID. */
+  private static class EventHeap {
+    private final long[] times;
+    private final int[] steps;
+    private int size = 0;
+
+    public EventHeap(int capacity) {
+      times = new long[capacity];
+      steps = new int[capacity];
+    }
+
+    public boolean isEmpty() {
+      return size == 0;
+    }
+
+    public long peekTime() {
+      return times[0];
+    }
+
+    public void push(long time, int step) {
+      int i = size++;
+      while (i > 0 && isBefore(time, step, (i - 1) >>> 1)) {
+        move((i - 1) >>> 1, i);
+        i = (i - 1) >>> 1;
+      }
+      times[i] = time;
+      steps[i] = step;
+    }
+
+    /** Removes the earliest event, returning its step. */
+    public int pop() {
+      int top = steps[0];
+      long lastTime = times[--size];
+      int lastStep = steps[size];
+      int i = 0;
+      while (2 * i + 1 < size) {
+        int child = 2 * i + 1;
+        if (child + 1 < size && isBefore(times[child + 1], steps[child + 1], child)) {
+          child++;
+        }
+        if (!isBefore(times[child], steps[child], lastTime, lastStep)) {
+          break;
+        }
+        move(child, i);
+        i = child;
+      }
+      times[i] = lastTime;
+      steps[i] = lastStep;
+      return top;
+    }
+
+    private boolean isBefore(long time, int step, int index) {
+      return isBefore(time, step, times[index], steps[index]);
+    }
+
+    private static boolean isBefore(long time, int step, long otherTime, int otherStep) {
+      return time < otherTime || (time == otherTime && step < otherStep);
+    }
+
+    private void move(int from, int to) {
+      times[to] = times[from];
+      steps[to] = steps[from];
+    }
+  }
+}
@@ -0,0 +1,280 @@
+package advent;
+
+import advent.Day06.Point;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Labels every cell of the points' bounding box with the point closest to it under the Manhattan
+ * distance, or with {@link #TIE} if several are equally close, as a flat {@code int[]} of point
+ * indices.
+ *
+ * <p>Small grids are labeled by a breadth-first search from all points at once: a cell takes the
+ * label of the cells one step closer that reached it, or TIE if they disagree (or are tied
+ * themselves). Large grids are labeled by a separable distance transform instead, which finds the
+ * closest point in each column, then in each row, with the columns and rows processed in parallel.
+ * Both give the same labels.
+ *
+ * <p>A point owning a cell on the bounding box's border also owns every cell straight outward from
+ * it, since each step outward moves one further from all points, so its region is infinite. Every
+ * other region lies inside the box.
+ */
+public class VoronoiGrid {
+
+  public static final int TIE = -1;
+
+  private static final int UNLABELED = -2;
+
+  /* Distance standing in for infinity, with room to add the grid's width and height */
+  private static final int FAR = Integer.MAX_VALUE / 4;
+
+  /* Grids with at least this many cells are labeled in parallel */
+  private static final int PARALLEL_THRESHOLD = 1 << 20;
+
+  private final int minX;
+  private final int minY;
+  private final int width;
+  private final int height;
+
+  /* Index of the closest point to each cell, or TIE, in row-major order */
+  private final int[] owners;
+
+  /* Per point: how many cells it owns, and whether it owns any on the border */
+  private final int[] areas;
+  private final boolean[] unbounded;
+
+  public VoronoiGrid(List<Point> points) {
+    this(points, null);
+  }
+
+  /**
+   * @param inParallel whether to label cells with the (parallel) distance transform rather than a
+   *     breadth-first search, or null to decide by the grid's size
+   */
+  VoronoiGrid(List<Point> points, Boolean inParallel) {
+    if (points.isEmpty()) {
+      throw new IllegalArgumentException("No points to label the grid by");
+    }
+
+    int minX = Integer.MAX_VALUE;
+    int minY = Integer.MAX_VALUE;
+    int maxX = Integer.MIN_VALUE;
+    int maxY = Integer.MIN_VALUE;
+    for (Point point : points) {
+      minX = Math.min(minX, point.x);
+      minY = Math.min(minY, point.y);
+      maxX = Math.max(maxX, point.x);
+      maxY = Math.max(maxY, point.y);
+    }
+    long cells = ((long) maxX - minX + 1) * ((long) maxY - minY + 1);
+    if (cells > Integer.MAX_VALUE - 8 || maxX - minX >= FAR || maxY - minY >= FAR) {
+      throw new IllegalArgumentException("Bounding box too large: " + cells + " cells");
+    }
+
+    this.minX = minX;
+    this.minY = minY;
+    width = maxX - minX + 1;
+    height = maxY - minY + 1;
+    owners = new int[(int) cells];
+
+    if (inParallel == null ? cells >= PARALLEL_THRESHOLD : inParallel) {
+      labelByDistanceTransform(points);
+    } else {
+      labelByBreadthFirstSearch(points);
+    }
+
+    areas = new int[points.size()];
+    unbounded = new boolean[points.size()];
+    for (int y = 0; y < height; y++) {
+      boolean borderRow = y == 0 || y == height - 1;
+      for (int x = 0; x < width; x++) {
+        int owner = owners[y * width + x];
+        if (owner != TIE) {
+          areas[owner]++;
+          if (borderRow || x == 0 || x == width - 1) {
+            unbounded[owner] = true;
+          }
+        }
+      }
+    }
+  }
+
+  /** Returns the index of the point closest to (x, y), or {@link #TIE}. */
+  public int getOwner(int x, int y) {
+    if (x < minX || x - minX >= width || y < minY || y - minY >= height) {
+      throw new IllegalArgumentException("Outside the bounding box: (" + x + ", " + y + ")");
+    }
+    return owners[(y - minY) * width + (x - minX)];
+  }
+
+  /** Returns how many cells the point at {@code index} owns within the bounding box. */
+  public int getArea(int index) {
+    return areas[index];
+  }
+
+  /** Returns true if the point at {@code index} owns infinitely many cells. */
+  public boolean isUnbounded(int index) {
+    return unbounded[index];
+  }
+
+  /** Returns the area of the largest finite region, or 0 if every region is infinite. */
+  public int getLargestFiniteArea() {
+    int largest = 0;
+    for (int i = 0; i < areas.length; i++) {
+      if (!unbounded[i] && areas[i] > largest) {
+        largest = areas[i];
+      }
+    }
+    return largest;
+  }
+
+  /**
+   * Labels cells in order of distance. Each cell closest to some point is one step further from it
+   * than a neighbour also closest to it, so the points closest to a cell are exactly those closest
+   * to its neighbours one step nearer (any other point would be nearer still).
+   */
+  private void labelByBreadthFirstSearch(List<Point> points) {
+    int[] distances = new int[owners.length];
+    int[] queue = new int[owners.length];
+    Arrays.fill(owners, UNLABELED);
+
+    int tail = 0;
+    for (int i = 0; i < points.size(); i++) {
+      int cell = (points.get(i).y - minY) * width + (points.get(i).x - minX);
+      if (owners[cell] == UNLABELED) {
+        owners[cell] = i;
+        queue[tail++] = cell;
+      } else {
+        owners[cell] = TIE; // Duplicate points
+      }
+    }
+
+    for (int head = 0; head < tail; head++) {
+      int cell = queue[head];
+      int owner = owners[cell];
+      int distance = distances[cell] + 1;
+      int x = cell % width;
+
+      for (int direction = 0; direction < 4; direction++) {
+        int neighbour;
+        if (direction == 0) {
+          neighbour = (x > 0) ? cell - 1 : -1;
+        } else if (direction == 1) {
+          neighbour = (x < width - 1) ? cell + 1 : -1;
+        } else if (direction == 2) {
+          neighbour = cell - width;
+        } else {
+          neighbour = (cell + width < owners.length) ? cell + width : -1;
+        }
+        if (neighbour < 0) {
+          continue;
+        }
+
+        if (owners[neighbour] == UNLABELED) {
+          owners[neighbour] = owner;
+          distances[neighbour] = distance;
+          queue[tail++] = neighbour;
+        } else if (distances[neighbour] == distance && owners[neighbour] != owner) {
+          owners[neighbour] = TIE;
+        }
+      }
+    }
+  }
+
+  /**
+   * Manhattan distance separates into a column part and a row part, so the closest point to each
+   * cell is found in two passes: first the closest point within each column (by sweeping down and
+   * up it), then the closest over all columns (by sweeping right and left along each row, one step
+   * costing one unit). Each sweep covers disjoint sets of points, so equal distances mean a tie.
+   */
+  private void labelByDistanceTransform(List<Point> points) {
+    int[] distances = new int[owners.length];
+    Arrays.fill(distances, FAR);
+    Arrays.fill(owners, TIE);
+    for (int i = 0; i < points.size(); i++) {
+      int cell = (points.get(i).y - minY) * width + (points.get(i).x - minX);
+      owners[cell] = (distances[cell] == 0) ? TIE : i;
+      distances[cell] = 0;
+    }
+
+    // Closest point in the same column: from above (or level) going down, then from below going up
+    IntStream.range(0, width)
+        .parallel()
+        .forEach(
+            x -> {
+              int distance = FAR;
+              int owner = TIE;
+              for (int cell = x; cell < owners.length; cell += width) {
+                if (distances[cell] == 0) {
+                  distance = 0;
+                  owner = owners[cell];
+                } else {
+                  distance++;
+                  distances[cell] = distance;
+                  owners[cell] = owner;
+                }
+              }
+
+              distance = FAR;
+              owner = TIE;
+              for (int cell = owners.length - width + x; cell >= 0; cell -= width) {
+                if (distances[cell] == 0) {
+                  distance = 0;
+                  owner = owners[cell];
+                  continue;
+                }
+                distance++;
+                if (distance < distances[cell]) {
+                  distances[cell] = distance;
+                  owners[cell] = owner;
+                } else if (distance == distances[cell] && distance < FAR) {
+                  owners[cell] = TIE;
+                }
+              }
+            });
+
+    // Closest over all columns: from the left (or same column) going right, then from the right
+    IntStream.range(0, height)
+        .parallel()
+        .forEach(
+            y -> {
+              int rowStart = y * width;
+              int[] columnDistances = Arrays.copyOfRange(distances, rowStart, rowStart + width);
+              int[] columnOwners = Arrays.copyOfRange(owners, rowStart, rowStart + width);
+
+              int distance = FAR;
+              int owner = TIE;
+              for (int x = 0; x < width; x++) {
+                distance++;
+                if (columnDistances[x] < distance) {
+                  distance = columnDistances[x];
+                  owner = columnOwners[x];
+                } else if (columnDistances[x] == distance) {
+                  owner = TIE;
+                }
+                distances[rowStart + x] = distance;
+                owners[rowStart + x] = owner;
+              }
+
+              distance = FAR;
+              owner = TIE;
+              for (int x = width - 1; x >= 0; x--) {
+                distance++; // Distance from the columns strictly right of x
+                if (distance < distances[rowStart + x]) {
+                  distances[rowStart + x] = distance;
+                  owners[rowStart + x] = owner;
+                } else if (distance == distances[rowStart + x] && distance < FAR) {
+                  owners[rowStart + x] = TIE;
+                }
+
+                if (columnDistances[x] < distance) {
+                  distance = columnDistances[x];
+                  owner = columnOwners[x];
+                } else if (columnDistances[x] == distance) {
+                  owner = TIE;
+                }
+              }
+            });
+  }
+}